@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("application")
+    id("me.champeau.jmh") version "0.7.2" // Benchmarks JMH en src/jmh/java
 }
 
 group = "org.example"
@@ -13,18 +14,54 @@ repositories {
 dependencies {
     // --- Framework Web ---
     implementation("io.javalin:javalin-bundle:5.6.1") // Javalin con plugins comunes
+    // Librerías nativas de brotli4j (la API llega con javalin-bundle, pero sin ellas no se puede comprimir en brotli);
+    // misma versión que la que trae Javalin, y el cargador elige la de la plataforma en ejecución
+    listOf("linux-x86_64", "linux-aarch64", "osx-x86_64", "osx-aarch64", "windows-x86_64").forEach {
+        runtimeOnly("com.aayushatharva.brotli4j:native-$it:1.11.0")
+    }
 
     // --- Manejo de JSON ---
     implementation("com.fasterxml.jackson.core:jackson-databind:2.15.2")
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:2.15.2") // Soporte para Java Time
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile:2.15.2") // JSON binario (Smile)
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor:2.15.2")  // JSON binario (CBOR)
 
     // --- Base de Datos ---
     implementation("com.zaxxer:HikariCP:5.0.1")       // Pool de conexiones
     implementation("mysql:mysql-connector-java:8.0.33") // Driver de MySQL
 
+    // --- Logging ---
+    implementation("org.slf4j:slf4j-api:2.0.7")
+    implementation("ch.qos.logback:logback-classic:1.4.7") // Configuración en src/main/resources/logback-app.xml
+
+    // --- Métricas ---
+    implementation("io.micrometer:micrometer-registry-prometheus:1.10.1") // Exposición en formato Prometheus (/metrics)
+
+    // --- Caché ---
+    implementation("com.github.ben-manes.caffeine:caffeine:3.1.8") // Caché en memoria con desalojo W-TinyLFU
+
     // --- Utilidades ---
     implementation("io.github.cdimascio:dotenv-java:3.0.0") // Para leer archivos .env
     implementation("org.jetbrains:annotations:24.0.0") // Para la anotación @Language
+
+    // --- Pruebas ---
+    testImplementation(platform("org.junit:junit-bom:5.9.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+// --- Pruebas de carga ---
+// Source set independiente con el arnés de carga; arranca la aplicación completa contra H2 en modo MySQL
+val loadtest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations[loadtest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadtest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    "loadtestImplementation"("org.hdrhistogram:HdrHistogram:2.1.12") // Histogramas de latencia
+    "loadtestRuntimeOnly"("com.h2database:h2:2.2.224")                // Base de datos embebida (modo MySQL)
 }
 
 application {
@@ -33,4 +70,67 @@ application {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// --- Arranque rápido (AppCDS) ---
+// 1) ./gradlew cdsArchive: arranca la aplicación contra la base de datos del .env, completa el calentamiento
+//    y, al salir, vuelca las clases cargadas en build/cds/app.jsa
+// 2) ./gradlew runWithCds: arranca la aplicación cargando esas clases del archivo
+// Se usa el JAR de la aplicación porque AppCDS no archiva clases cargadas desde directorios.
+val cdsArchiveFile = layout.buildDirectory.file("cds/app.jsa")
+val cdsClasspath = files(tasks.jar.flatMap { it.archiveFile }) + configurations.runtimeClasspath.get()
+
+tasks.register<JavaExec>("cdsArchive") {
+    group = "application"
+    description = "Genera el archivo AppCDS de la aplicación tras un arranque con calentamiento."
+    dependsOn(tasks.jar)
+    classpath = cdsClasspath
+    mainClass.set("org.example.Main")
+    environment("STARTUP_WARMUP_ENABLED", "true")
+    environment("STARTUP_EXIT_AFTER_WARMUP", "true")
+    jvmArgs("-XX:ArchiveClassesAtExit=${cdsArchiveFile.get().asFile.path}")
+    doFirst { cdsArchiveFile.get().asFile.parentFile.mkdirs() }
+}
+
+tasks.register<JavaExec>("runWithCds") {
+    group = "application"
+    description = "Arranca la aplicación usando el archivo AppCDS generado por cdsArchive."
+    dependsOn(tasks.jar)
+    classpath = cdsClasspath
+    mainClass.set("org.example.Main")
+    jvmArgs("-XX:SharedArchiveFile=${cdsArchiveFile.get().asFile.path}")
+}
+
+// --- Benchmarks (JMH) ---
+// Ejecutar con: ./gradlew jmh  (resultados en build/results/jmh/results.json)
+// Para un subconjunto: ./gradlew jmh -PjmhIncludes=BookMapperBenchmark
+jmh {
+    jmhVersion.set("1.37")
+    // El profiler "gc" añade gc.alloc.rate.norm (bytes asignados por operación) a cada resultado
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+}
+
+// Ejecutar con: ./gradlew loadTest -Ploadtest.rate=500 -Ploadtest.durationSeconds=60 \
+//   -Ploadtest.mix=create=10,read=50,list=25,update=10,delete=5
+// Informe por ruta (p50/p99/p999 y errores) en consola y en build/reports/loadtest/
+// Comparación de hilos virtuales y de plataforma (SERVER_VIRTUAL_THREADS): mismo comando con
+//   -Ploadtest.virtualThreads=false y =true, ejecutado con Java 21 (-Ploadtest.javaHome=/ruta/al/jdk-21)
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Arranca la aplicación contra H2 (modo MySQL) y ejecuta una prueba de carga a tasa fija."
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("org.example.loadtest.LoadTestRunner")
+    environment("DB_URL", "jdbc:h2:mem:books;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE")
+    environment("DB_USERNAME", "sa")
+    environment("DB_PASSWORD", "sa")
+    environment("SERVER_PORT", project.findProperty("loadtest.port") ?: "7071")
+    environment("SERVER_VIRTUAL_THREADS", project.findProperty("loadtest.virtualThreads") ?: "false")
+    (project.findProperty("loadtest.javaHome") as String?)?.let { setExecutable("$it/bin/java") }
+    systemProperty("loadtest.reportDir", layout.buildDirectory.dir("reports/loadtest").get().asFile.path)
+    project.properties.filterKeys { it.startsWith("loadtest.") }.forEach { (key, value) -> systemProperty(key, value!!) }
+}
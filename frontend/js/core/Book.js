@@ -49,6 +49,20 @@ export class Book {
     get createdAt() { return this._createdAt; }
     get updatedAt() { return this._updatedAt; }
 
+    /**
+     * Devuelve una copia del libro que toma de otro las fechas que le falten.
+     * La respuesta de PUT y los eventos "updated" del feed omiten createdAt cuando el servidor
+     * no lo tiene en memoria (no cambia al actualizar), así que se conserva el de la versión anterior.
+     * @param {Book} other - El libro del que se toman las fechas.
+     * @returns {Book} Una nueva instancia de Book.
+     */
+    withMissingDatesFrom(other) {
+        const copy = Object.assign(Object.create(Book.prototype), this);
+        copy._createdAt = this._createdAt ?? other.createdAt;
+        copy._updatedAt = this._updatedAt ?? other.updatedAt;
+        return copy;
+    }
+
     /**
      * Crea una instancia de Book a partir de un objeto JSON.
      * @param {object} data - Objeto JSON con los datos del libro.
@@ -23,17 +23,88 @@ export class BookRepository {
      */
     async getAllBooks() {
         try {
-            const response = await this.bookApiService.getAll();
+            const books = [];
+            let cursor = null;
+            // La API pagina el listado por cursor: se recorren las páginas hasta que no haya 'nextCursor'
+            do {
+                const response = await this.bookApiService.getAll(cursor);
+                if (!response.success || !Array.isArray(response.data)) {
+                    throw new Error(response.message || 'Error desconocido al obtener todos los libros.');
+                }
+                books.push(...response.data.map(Book.fromJson));
+                cursor = response.nextCursor;
+            } while (cursor);
+            return books;
+        } catch (error) {
+            console.error('Error en BookRepository.getAllBooks:', error);
+            throw error;
+        }
+    }
+
+    /**
+     * Busca libros por título, autor o ISBN, ordenados por relevancia.
+     * @param {string} query - El texto a buscar.
+     * @returns {Promise<Book[]>} Una promesa que resuelve con los libros encontrados.
+     */
+    async searchBooks(query) {
+        try {
+            const response = await this.bookApiService.search(query);
             if (response.success && Array.isArray(response.data)) {
                 return response.data.map(Book.fromJson);
             }
-            throw new Error(response.message || 'Error desconocido al obtener todos los libros.');
+            throw new Error(response.message || 'Error desconocido al buscar libros.');
         } catch (error) {
-            console.error('Error en BookRepository.getAllBooks:', error);
+            console.error(`Error en BookRepository.searchBooks(${query}):`, error);
             throw error;
         }
     }
 
+    /**
+     * Obtiene los cambios del catálogo posteriores a una versión.
+     * @param {number|null} since - La última versión aplicada, o null para obtener solo la versión actual.
+     * @param {string|null} feedId - El identificador del feed con el que se obtuvo esa versión.
+     * @returns {Promise<object>} Un objeto { feedId, version, resync, changes }, donde cada cambio tiene
+     * 'version', 'type' ('created', 'updated' o 'deleted'), 'bookId' y 'book' (entidad Book, o null en las bajas).
+     */
+    async getChanges(since = null, feedId = null) {
+        try {
+            const response = await this.bookApiService.getChanges(since, feedId);
+            if (response.success && response.data) {
+                return {
+                    ...response.data,
+                    changes: response.data.changes.map(BookRepository.toChange),
+                };
+            }
+            throw new Error(response.message || 'Error desconocido al obtener los cambios del catálogo.');
+        } catch (error) {
+            console.error('Error en BookRepository.getChanges:', error);
+            throw error;
+        }
+    }
+
+    /**
+     * Abre el stream de cambios del catálogo (Server-Sent Events). Al reconectarse, el navegador
+     * reanuda el stream desde el último cambio recibido.
+     * @param {number|null} since - La última versión aplicada.
+     * @param {string|null} feedId - El identificador del feed con el que se obtuvo esa versión.
+     * @param {object} handlers - { onHello(state), onChange(change) }; 'state' tiene 'feedId', 'version' y 'resync'.
+     * @returns {EventSource|null} El stream abierto (para cerrarlo), o null si el navegador no soporta SSE.
+     */
+    openChangeStream(since, feedId, { onHello, onChange }) {
+        if (typeof EventSource === 'undefined') {
+            return null;
+        }
+        const stream = new EventSource(this.bookApiService.changesStreamUrl(since, feedId));
+        stream.addEventListener('hello', (event) => onHello(JSON.parse(event.data)));
+        stream.addEventListener('change', (event) => onChange(BookRepository.toChange(JSON.parse(event.data))));
+        stream.onerror = () => console.warn('Stream de cambios interrumpido; el navegador reintentará la conexión.');
+        return stream;
+    }
+
+    static toChange(change) {
+        return { ...change, book: change.book ? Book.fromJson(change.book) : null };
+    }
+
     /**
      * Obtiene un libro por su ID.
      * @param {number} id - El ID del libro.
@@ -53,8 +53,51 @@ export class BookApiService {
     }
 
     // Métodos específicos para cada operación CRUD
-    async getAll() {
-        return this.request('', 'GET');
+    /**
+     * Obtiene una página de libros.
+     * @param {string|null} [cursor=null] - Cursor opaco devuelto en la página anterior.
+     * @returns {Promise<object>} La respuesta JSON con 'data' y 'nextCursor'.
+     */
+    async getAll(cursor = null) {
+        const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+        return this.request(query, 'GET');
+    }
+
+    /**
+     * Busca libros por título, autor o ISBN.
+     * @param {string} query - El texto a buscar.
+     * @returns {Promise<object>} La respuesta JSON con los libros encontrados en 'data'.
+     */
+    async search(query) {
+        return this.request(`/search?q=${encodeURIComponent(query)}`, 'GET');
+    }
+
+    /**
+     * Obtiene los cambios del catálogo posteriores a una versión.
+     * @param {number|null} since - La última versión aplicada, o null para obtener solo la versión actual.
+     * @param {string|null} feedId - El identificador del feed con el que se obtuvo esa versión.
+     * @returns {Promise<object>} La respuesta JSON con 'feedId', 'version', 'resync' y 'changes' en 'data'.
+     */
+    async getChanges(since = null, feedId = null) {
+        return this.request(`/changes${this.changesQuery(since, feedId)}`, 'GET');
+    }
+
+    /**
+     * URL del stream de cambios (Server-Sent Events) a partir de una versión.
+     * @param {number|null} since - La última versión aplicada.
+     * @param {string|null} feedId - El identificador del feed con el que se obtuvo esa versión.
+     * @returns {string}
+     */
+    changesStreamUrl(since = null, feedId = null) {
+        return `${this.baseUrl}/changes/stream${this.changesQuery(since, feedId)}`;
+    }
+
+    changesQuery(since, feedId) {
+        const params = new URLSearchParams();
+        if (since !== null) params.set('since', since);
+        if (feedId) params.set('feedId', feedId);
+        const query = params.toString();
+        return query ? `?${query}` : '';
     }
 
     async getById(id) {
@@ -36,6 +36,8 @@ document.addEventListener("DOMContentLoaded", () => {
     .loadBooks()
     .then(() => {
       console.log("Initial books loaded.")
+      // 6. Recibir en directo los cambios hechos desde otras pestañas o por otros usuarios
+      bookViewModel.startLiveUpdates()
     })
     .catch((error) => {
       console.error("Failed to load initial books:", error)
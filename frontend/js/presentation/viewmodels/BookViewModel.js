@@ -20,6 +20,11 @@ export class BookViewModel {
         this.error = null;
         this.loading = false;
 
+        // Posición en el feed de cambios del servidor: permite sincronizar solo los cambios (delta)
+        this.feedId = null;
+        this.version = null;
+        this.changeStream = null;
+
         // Callbacks para notificar a la vista sobre cambios de estado o errores
         this.onBooksChanged = () => {};
         this.onBookSelected = () => {};
@@ -33,7 +38,11 @@ export class BookViewModel {
     async loadBooks() {
         this.setLoading(true);
         try {
+            // La versión se obtiene ANTES que la lista: un cambio intermedio puede aplicarse dos veces, pero no perderse
+            const { feedId, version } = await this.bookRepository.getChanges();
             this.books = await this.bookRepository.getAllBooks();
+            this.feedId = feedId;
+            this.version = version;
             this.error = null;
             this.onBooksChanged(this.books); // Notificar a la vista
         } catch (error) {
@@ -43,6 +52,118 @@ export class BookViewModel {
         }
     }
 
+    /**
+     * Aplica los cambios del catálogo posteriores a la versión cargada, sin volver a pedir la lista completa.
+     * Si esa versión ya no está disponible en el servidor, recarga la lista.
+     */
+    async syncChanges() {
+        if (this.version === null) {
+            return this.loadBooks();
+        }
+        try {
+            const delta = await this.bookRepository.getChanges(this.version, this.feedId);
+            if (delta.resync) {
+                return this.loadBooks();
+            }
+            this.applyChanges(delta.changes);
+            this.error = null;
+        } catch (error) {
+            this.setError(error);
+        }
+    }
+
+    /**
+     * Recibe los cambios del catálogo en directo (otras pestañas u otros usuarios) mediante Server-Sent Events.
+     */
+    startLiveUpdates() {
+        if (this.changeStream) {
+            return;
+        }
+        this.changeStream = this.bookRepository.openChangeStream(this.version, this.feedId, {
+            onHello: (state) => {
+                if (state.resync || state.feedId !== this.feedId) {
+                    this.loadBooks();
+                }
+            },
+            onChange: (change) => this.applyChanges([change]),
+        });
+    }
+
+    /**
+     * Aplica a la lista cargada los cambios de versión posterior a la actual, manteniendo el orden
+     * del listado (título y, a igualdad, ID), y notifica a la vista si hubo alguno.
+     * Un libro actualizado conserva las fechas que ya tenía si el cambio no las trae; si aun así le falta
+     * la fecha de creación (no estaba en la lista), se vuelve a pedir al servidor.
+     * @param {object[]} changes - Cambios en orden de versión.
+     */
+    applyChanges(changes) {
+        const pending = changes.filter((change) => change.version > this.version);
+        if (pending.length === 0) {
+            return;
+        }
+        const incomplete = new Set();
+        for (const change of pending) {
+            const previous = this.books.find((book) => book.id === change.bookId);
+            this.books = this.books.filter((book) => book.id !== change.bookId);
+            incomplete.delete(change.bookId);
+            if (change.book) {
+                const book = previous ? change.book.withMissingDatesFrom(previous) : change.book;
+                if (!book.createdAt) {
+                    incomplete.add(book.id);
+                }
+                this.insertSorted(book);
+            }
+            this.version = change.version;
+        }
+        this.onBooksChanged(this.books);
+        incomplete.forEach((id) => this.refreshBook(id));
+    }
+
+    insertSorted(book) {
+        const index = this.books.findIndex((other) => BookViewModel.compareBooks(book, other) < 0);
+        this.books.splice(index === -1 ? this.books.length : index, 0, book);
+    }
+
+    /**
+     * Sustituye un libro de la lista por su versión completa del servidor (si sigue en la lista).
+     * @param {number} id - El ID del libro.
+     */
+    async refreshBook(id) {
+        try {
+            const book = await this.bookRepository.getBookById(id);
+            const index = this.books.findIndex((other) => other.id === id);
+            if (index !== -1 && !this.books[index].createdAt) {
+                this.books[index] = book.withMissingDatesFrom(this.books[index]);
+                this.onBooksChanged(this.books);
+            }
+        } catch (error) {
+            console.warn(`No se pudieron completar los datos del libro ${id}:`, error);
+        }
+    }
+
+    static compareBooks(a, b) {
+        if (a.title !== b.title) {
+            return a.title < b.title ? -1 : 1;
+        }
+        return a.id - b.id;
+    }
+
+    /**
+     * Busca libros por título, autor o ISBN en el servidor, sin modificar la lista cargada.
+     * @param {string} query - El texto a buscar.
+     * @returns {Promise<Book[]|null>} Los libros encontrados, o null si hubo un error (ya notificado).
+     */
+    async searchBooks(query) {
+        try {
+            const results = await this.bookRepository.searchBooks(query);
+            this.error = null;
+            return results;
+        } catch (error) {
+            this.setError(error);
+            return null;
+        }
+    }
+
     /**
      * Establece el libro actual para edición.
      * @param {number} id - El ID del libro a editar.
@@ -75,7 +196,7 @@ export class BookViewModel {
                 savedBook = await this.bookRepository.createBook(bookData);
             }
             this.error = null;
-            await this.loadBooks(); // Recargar la lista después de guardar/actualizar
+            await this.syncChanges(); // Aplicar solo los cambios desde la última versión cargada
             return savedBook;
         } catch (error) {
             this.setError(error);
@@ -95,7 +216,7 @@ export class BookViewModel {
             const success = await this.bookRepository.deleteBook(id);
             if (success) {
                 this.error = null;
-                await this.loadBooks(); // Recargar la lista después de eliminar
+                await this.syncChanges(); // Aplicar solo los cambios desde la última versión cargada
             } else {
                 throw new Error(`No se pudo eliminar el libro con ID ${id}.`);
             }
@@ -95,17 +95,29 @@ export class BookView {
   }
 
   handleSearch(searchTerm) {
-    this.searchTerm = searchTerm.toLowerCase()
-    const filtered = this.bookViewModel.books.filter(
-      (book) =>
-        book.title.toLowerCase().includes(this.searchTerm) ||
-        book.author.toLowerCase().includes(this.searchTerm) ||
-        book.isbn.toLowerCase().includes(this.searchTerm),
-    )
-
-    this.filteredBooks = filtered
-    this.renderBooks(filtered)
-    this.uiManager.updateShowingCount(filtered.length, this.bookViewModel.books.length)
+    this.searchTerm = searchTerm.trim()
+    clearTimeout(this.searchTimer)
+
+    if (!this.searchTerm) {
+      this.filteredBooks = this.bookViewModel.books
+      this.renderBooks(this.filteredBooks)
+      this.uiManager.updateShowingCount(this.filteredBooks.length, this.bookViewModel.books.length)
+      return
+    }
+
+    // La búsqueda se hace en el servidor; se espera a que el usuario deje de escribir para no lanzar una petición por tecla
+    this.searchTimer = setTimeout(() => this.runSearch(this.searchTerm), 250)
+  }
+
+  async runSearch(searchTerm) {
+    const results = await this.bookViewModel.searchBooks(searchTerm)
+    if (results === null || searchTerm !== this.searchTerm) {
+      return // Error ya notificado, o el usuario ya escribió otra búsqueda
+    }
+
+    this.filteredBooks = results
+    this.renderBooks(results)
+    this.uiManager.updateShowingCount(results.length, this.bookViewModel.books.length)
   }
 
   /**
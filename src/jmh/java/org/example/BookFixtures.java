@@ -0,0 +1,35 @@
+package org.example;
+
+import org.example.models.Book;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+public class BookFixtures {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    public static Book book(int id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Título del libro número " + id);
+        book.setAuthor("Autor " + (id % 1000));
+        book.setPublicationYear(1900 + id % 125);
+        book.setIsbn(String.format("978-%010d", id));
+        book.setCreatedAt(BASE_TIME.plusSeconds(id));
+        book.setUpdatedAt(BASE_TIME.plusSeconds(id * 2L));
+        return book;
+    }
+
+    public static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            books.add(book(i));
+        }
+        return books;
+    }
+}
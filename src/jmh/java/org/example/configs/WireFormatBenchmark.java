@@ -0,0 +1,55 @@
+package org.example.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.BookFixtures;
+import org.example.mappers.BookMapper;
+import org.example.models.dtos.BookCreateDTO;
+import org.example.models.dtos.BookDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara JSON, Smile y CBOR: serialización de una página del listado (respuesta) y deserialización
+ * de un lote de altas (petición). El tamaño de cada carga útil se imprime al preparar el benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private WireFormat format;
+
+    @Param({"1", "50", "1000"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private Map<String, Object> listEnvelope;
+    private byte[] batchRequest;
+
+    @Setup
+    public void setup() throws Exception {
+        mapper = format.mapper();
+        List<BookDTO> books = new BookMapper().toDtoList(BookFixtures.books(size));
+        listEnvelope = Map.of("success", true, "data", books);
+        BookCreateDTO[] creates = books.stream()
+                .map(book -> new BookCreateDTO(book.title(), book.author(), book.publicationYear(), book.isbn()))
+                .toArray(BookCreateDTO[]::new);
+        batchRequest = mapper.writeValueAsBytes(creates);
+        System.out.println(format + " (" + size + " libros): respuesta " + mapper.writeValueAsBytes(listEnvelope).length
+                + " bytes, petición " + batchRequest.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return mapper.writeValueAsBytes(listEnvelope);
+    }
+
+    @Benchmark
+    public BookCreateDTO[] deserializeBatch() throws Exception {
+        return mapper.readValue(batchRequest, BookCreateDTO[].class);
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.BookFixtures;
+import org.example.configs.JacksonConfig;
+import org.example.mappers.BookMapper;
+import org.example.models.dtos.BookDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la serialización con Jackson de los sobres de respuesta que produce BookController
+ * ({"success": ..., "data": ...}), escribiendo a un OutputStream nulo para no medir la copia de bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = JacksonConfig.getObjectMapper();
+    private Map<String, Object> listEnvelope;
+    private Map<String, Object> singleEnvelope;
+
+    @Setup
+    public void setup() {
+        List<BookDTO> books = new BookMapper().toDtoList(BookFixtures.books(size));
+        listEnvelope = Map.of("success", true, "data", books);
+        singleEnvelope = Map.of("success", true, "data", books.get(0));
+    }
+
+    @Benchmark
+    public void serializeList() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), listEnvelope);
+    }
+
+    @Benchmark
+    public void serializeSingle() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), singleEnvelope);
+    }
+}
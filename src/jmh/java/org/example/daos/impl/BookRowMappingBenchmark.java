@@ -0,0 +1,78 @@
+package org.example.daos.impl;
+
+import org.example.BookFixtures;
+import org.example.models.Book;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide BookDAO.mapRowToBook recorriendo un ResultSet simulado en memoria,
+ * para aislar el coste del mapeo (incluidas las conversiones Timestamp -> LocalDateTime) del de la red y MySQL.
+ * El stub también asigna memoria (boxing de los valores), así que las cifras sirven para comparar cambios
+ * en el mapeo, no como coste absoluto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookRowMappingBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private final BookDAO bookDAO = new BookDAO();
+    private Object[][] rows;
+
+    @Setup
+    public void setup() {
+        List<Book> books = BookFixtures.books(size);
+        rows = new Object[size][];
+        for (int i = 0; i < size; i++) {
+            Book book = books.get(i);
+            rows[i] = new Object[]{
+                    book.getId(), book.getTitle(), book.getAuthor(), book.getPublicationYear(), book.getIsbn(),
+                    Timestamp.valueOf(book.getCreatedAt()), Timestamp.valueOf(book.getUpdatedAt())
+            };
+        }
+    }
+
+    @Benchmark
+    public void mapRows(Blackhole blackhole) throws Exception {
+        ResultSet rs = stubResultSet(rows);
+        while (rs.next()) {
+            blackhole.consume(bookDAO.mapRowToBook(rs));
+        }
+    }
+
+    /**
+     * Crea un ResultSet mínimo que solo implementa los métodos usados por mapRowToBook.
+     */
+    private static ResultSet stubResultSet(Object[][] rows) {
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> ++cursor[0] < rows.length;
+                    case "getInt", "getString", "getTimestamp" -> rows[cursor[0]][columnIndex((String) args[0])];
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static int columnIndex(String column) {
+        return switch (column) {
+            case "id" -> 0;
+            case "title" -> 1;
+            case "author" -> 2;
+            case "publication_year" -> 3;
+            case "isbn" -> 4;
+            case "created_at" -> 5;
+            case "updated_at" -> 6;
+            default -> throw new IllegalArgumentException("Columna desconocida: " + column);
+        };
+    }
+}
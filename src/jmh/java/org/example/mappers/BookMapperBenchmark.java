@@ -0,0 +1,41 @@
+package org.example.mappers;
+
+import org.example.BookFixtures;
+import org.example.models.Book;
+import org.example.models.dtos.BookDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el coste de BookMapper.toDto y toDtoList para distintos tamaños de catálogo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookMapperBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private final BookMapper mapper = new BookMapper();
+    private List<Book> books;
+    private Book singleBook;
+
+    @Setup
+    public void setup() {
+        books = BookFixtures.books(size);
+        singleBook = books.get(0);
+    }
+
+    @Benchmark
+    public BookDTO toDto() {
+        return mapper.toDto(singleBook);
+    }
+
+    @Benchmark
+    public List<BookDTO> toDtoList() {
+        return mapper.toDtoList(books);
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuración de la prueba de carga, leída de propiedades del sistema (-Ploadtest.* en Gradle).
+ * @param rate Peticiones por segundo (tasa de llegada fija, independiente de la latencia).
+ * @param durationSeconds Duración de la fase medida.
+ * @param warmupSeconds Duración del calentamiento previo, cuyas latencias se descartan.
+ * @param seedBooks Número de libros creados antes de empezar, para que haya datos que leer y modificar.
+ * @param mix Peso relativo de cada operación.
+ * @param reportDir Directorio donde se escriben los histogramas de cada ruta.
+ */
+public record LoadTestConfig(int rate, int durationSeconds, int warmupSeconds, int seedBooks,
+                             Map<Operation, Integer> mix, String reportDir) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.rate", 200),
+                Integer.getInteger("loadtest.durationSeconds", 30),
+                Integer.getInteger("loadtest.warmupSeconds", 5),
+                Integer.getInteger("loadtest.seedBooks", 1000),
+                parseMix(System.getProperty("loadtest.mix", "create=10,read=50,list=25,update=10,delete=5")),
+                System.getProperty("loadtest.reportDir", "build/reports/loadtest"));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrada de mezcla no válida: '" + entry + "'. Formato: operacion=peso");
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,257 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.Main;
+import org.example.configs.AppConfig;
+import org.example.configs.JacksonConfig;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Arnés de carga de extremo a extremo: arranca la aplicación completa (Main -> BookRoutes -> BookController ->
+ * BookService -> BookDAO) y la somete a una mezcla configurable de operaciones a una tasa de llegada fija.
+ * La latencia se mide desde el instante en que la petición debía enviarse (no desde que se envió), para que
+ * las esperas del propio generador no oculten la latencia real (omisión coordinada).
+ */
+public class LoadTestRunner {
+
+    private static final ObjectMapper objectMapper = JacksonConfig.getObjectMapper();
+    private static final int SEED_BATCH_SIZE = 500;
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final List<Integer> liveIds = new ArrayList<>();
+    private final AtomicLong isbnSequence = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Operation[] weightedOperations;
+
+    public LoadTestRunner(LoadTestConfig config, String baseUrl) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(16))
+                .build();
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+        this.weightedOperations = buildWeightedOperations(config.mix());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Main.main(args);
+
+        LoadTestRunner runner = new LoadTestRunner(config, "http://" + AppConfig.getServerHost() + ":" + AppConfig.getServerPort());
+        runner.seed();
+        runner.run();
+        runner.report();
+        System.exit(0);
+    }
+
+    private static Operation[] buildWeightedOperations(Map<Operation, Integer> mix) {
+        List<Operation> operations = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla de operaciones no puede estar vacía.");
+        }
+        return operations.toArray(new Operation[0]);
+    }
+
+    /**
+     * Crea los libros iniciales usando el endpoint de creación por lotes.
+     */
+    private void seed() throws Exception {
+        System.out.println("Creando " + config.seedBooks() + " libros iniciales...");
+        for (int created = 0; created < config.seedBooks(); created += SEED_BATCH_SIZE) {
+            int count = Math.min(SEED_BATCH_SIZE, config.seedBooks() - created);
+            List<Map<String, Object>> books = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                books.add(newBookBody());
+            }
+            HttpResponse<String> response = client.send(jsonRequest("/api/books/batch", "POST", books), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("No se pudieron crear los libros iniciales: " + response.body());
+            }
+            for (JsonNode item : objectMapper.readTree(response.body()).path("data").path("items")) {
+                if (item.path("success").asBoolean()) {
+                    addLiveId(item.path("id").asInt());
+                }
+            }
+        }
+    }
+
+    private void run() {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        long end = measureStart + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        System.out.println("Ejecutando " + config.rate() + " peticiones/s durante " + config.durationSeconds()
+                + " s (+" + config.warmupSeconds() + " s de calentamiento)...");
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+            send(operation, intended, intended >= measureStart);
+        }
+
+        // Esperar a que terminen las peticiones en curso
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    private void send(Operation operation, long intendedStart, boolean measured) {
+        Integer id = null;
+        if (operation != Operation.CREATE && operation != Operation.LIST) {
+            id = operation == Operation.DELETE ? takeLiveId() : pickLiveId();
+            if (id == null) {
+                operation = Operation.CREATE; // Sin libros disponibles, se crea uno
+            }
+        }
+
+        HttpRequest request = switch (operation) {
+            case CREATE -> jsonRequest("/api/books", "POST", newBookBody());
+            case READ -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/" + id)).GET().build();
+            case LIST -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/books?limit=50")).GET().build();
+            case UPDATE -> jsonRequest("/api/books/" + id, "PUT", newBookBody());
+            case DELETE -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/" + id)).DELETE().build();
+        };
+
+        Operation sent = operation;
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            long latencyMicros = (System.nanoTime() - intendedStart) / 1000;
+            boolean ok = error == null && response.statusCode() == expectedStatus(sent);
+            if (measured) {
+                latencies.get(sent).recordValue(latencyMicros);
+                if (!ok) {
+                    errors.get(sent).increment();
+                }
+            }
+            if (ok && sent == Operation.CREATE) {
+                try {
+                    addLiveId(objectMapper.readTree(response.body()).path("data").path("id").asInt());
+                } catch (Exception ignored) {
+                    // Una respuesta ilegible ya no cuenta como error de la creación
+                }
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private int expectedStatus(Operation operation) {
+        return switch (operation) {
+            case CREATE -> 201;
+            case DELETE -> 204;
+            default -> 200;
+        };
+    }
+
+    private Map<String, Object> newBookBody() {
+        long sequence = isbnSequence.incrementAndGet();
+        return Map.of(
+                "title", "Libro de carga " + sequence,
+                "author", "Autor " + (sequence % 500),
+                "publicationYear", 1950 + (int) (sequence % 70),
+                "isbn", String.format("LT%018d", sequence));
+    }
+
+    private HttpRequest jsonRequest(String path, String method, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo serializar el cuerpo de la petición.", e);
+        }
+    }
+
+    private synchronized void addLiveId(int id) {
+        liveIds.add(id);
+    }
+
+    private synchronized Integer pickLiveId() {
+        return liveIds.isEmpty() ? null : liveIds.get(ThreadLocalRandom.current().nextInt(liveIds.size()));
+    }
+
+    private synchronized Integer takeLiveId() {
+        if (liveIds.isEmpty()) {
+            return null;
+        }
+        int index = ThreadLocalRandom.current().nextInt(liveIds.size());
+        int last = liveIds.size() - 1;
+        Integer id = liveIds.get(index);
+        liveIds.set(index, liveIds.get(last));
+        liveIds.remove(last);
+        return id;
+    }
+
+    private void report() throws FileNotFoundException {
+        File reportDir = new File(config.reportDir());
+        reportDir.mkdirs();
+
+        System.out.println();
+        System.out.printf("%-24s %10s %8s %10s %10s %10s %10s %10s%n",
+                "Ruta", "Peticiones", "Errores", "req/s", "p50 (ms)", "p99 (ms)", "p999 (ms)", "max (ms)");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    operation.route(),
+                    histogram.getTotalCount(),
+                    errors.get(operation).sum(),
+                    histogram.getTotalCount() / (double) config.durationSeconds(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+
+            // Distribución completa en formato .hgrm (valores en milisegundos), apta para HdrHistogram Plotter
+            try (PrintStream out = new PrintStream(new File(reportDir, operation.name().toLowerCase() + ".hgrm"))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println();
+        System.out.println("Histogramas guardados en " + reportDir.getAbsolutePath());
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.loadtest;
+
+/**
+ * Operaciones de la API que ejecuta la prueba de carga, con la ruta con la que se reportan.
+ */
+public enum Operation {
+    CREATE("POST /api/books"),
+    READ("GET /api/books/{id}"),
+    LIST("GET /api/books"),
+    UPDATE("PUT /api/books/{id}"),
+    DELETE("DELETE /api/books/{id}");
+
+    private final String route;
+
+    Operation(String route) {
+        this.route = route;
+    }
+
+    public String route() {
+        return route;
+    }
+}
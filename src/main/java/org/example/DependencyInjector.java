@@ -1,11 +1,33 @@
 package org.example;
 
+import org.example.configs.AppConfig;
+import org.example.configs.DbConfig;
+import org.example.configs.JacksonConfig;
+import org.example.configs.MetricsConfig;
+import org.example.controllers.AdminController;
 import org.example.controllers.BookController;
+import org.example.controllers.BookListSnapshot;
 import org.example.daos.IBookDAO;
+import org.example.daos.impl.BatchingBookDAO;
 import org.example.daos.impl.BookDAO;
+import org.example.daos.impl.CachedBookDAO;
+import org.example.daos.impl.CoalescingBookDAO;
+import org.example.daos.impl.MeteredBookDAO;
+import org.example.daos.impl.SingleFlightBookDAO;
 import org.example.mappers.BookMapper;
+import org.example.routes.AdminRoutes;
 import org.example.routes.BookRoutes;
+import org.example.services.BookChangePublisher;
+import org.example.services.BookImportService;
+import org.example.services.BookSearchService;
 import org.example.services.BookService;
+import org.example.services.CatalogVersion;
+import org.example.services.changes.BookChangeFeed;
+import org.example.services.search.BookSearchIndex;
+import org.example.services.search.IsbnIndex;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Clase que actúa como un "Composition Root" o "Contenedor de Inyección de Dependencias" manual.
@@ -14,10 +36,22 @@ import org.example.services.BookService;
 public class DependencyInjector {
 
     private static IBookDAO bookDAO;
+    private static CachedBookDAO cachedBookDAO;
+    private static CoalescingBookDAO coalescingBookDAO;
     private static BookMapper bookMapper;
     private static BookService bookService;
+    private static BookImportService bookImportService;
+    private static BookChangePublisher bookChangePublisher;
+    private static BookSearchIndex bookSearchIndex;
+    private static IsbnIndex isbnIndex;
+    private static BookSearchService bookSearchService;
+    private static CatalogVersion catalogVersion;
+    private static BookListSnapshot bookListSnapshot;
+    private static BookChangeFeed bookChangeFeed;
     private static BookController bookController;
     private static BookRoutes bookRoutes;
+    private static AdminController adminController;
+    private static AdminRoutes adminRoutes;
 
     /**
      * Inicializa y retorna una instancia de BookRoutes, que contiene
@@ -26,21 +60,126 @@ public class DependencyInjector {
      * @return Una instancia de BookRoutes con todos sus componentes resueltos.
      */
     public static BookRoutes getBookRoutes() {
-        if (bookDAO == null) {
-            bookDAO = new BookDAO();
-        }
         if (bookMapper == null) {
             bookMapper = new BookMapper();
         }
+        if (bookChangePublisher == null) {
+            bookChangePublisher = new BookChangePublisher();
+        }
+        if (catalogVersion == null) {
+            catalogVersion = new CatalogVersion(AppConfig.getEtagMaxRememberedBooks(),
+                    DbConfig.hasReplicas() ? AppConfig.getDbReplicaMaxLagMs() : 0);
+            bookChangePublisher.addListener(catalogVersion);
+        }
+        if (bookSearchIndex == null) {
+            bookSearchIndex = new BookSearchIndex();
+            bookChangePublisher.addListener(bookSearchIndex);
+        }
+        if (isbnIndex == null) {
+            isbnIndex = new IsbnIndex();
+            bookChangePublisher.addListener(isbnIndex);
+        }
+        // Los índices en memoria se cargan en paralelo, cada uno con su propia lectura en streaming
+        CompletableFuture<Void> searchIndexBuild = CompletableFuture.completedFuture(null);
+        if (bookSearchService == null) {
+            bookSearchService = new BookSearchService(getBookDAO(), bookMapper, bookSearchIndex);
+            searchIndexBuild = CompletableFuture.runAsync(bookSearchService::buildIndex);
+        }
         if (bookService == null) {
-            bookService = new BookService(bookDAO, bookMapper);
+            bookService = new BookService(getBookDAO(), bookMapper, bookChangePublisher, isbnIndex);
+            bookService.buildIsbnIndex();
+        }
+        searchIndexBuild.join();
+        if (bookImportService == null) {
+            bookImportService = new BookImportService(getBookDAO(), bookMapper, JacksonConfig.getObjectMapper(),
+                    bookChangePublisher, isbnIndex);
+        }
+        if (bookListSnapshot == null) {
+            bookListSnapshot = new BookListSnapshot(bookService, JacksonConfig.getObjectMapper(), catalogVersion,
+                    Math.min(AppConfig.getPageDefaultLimit(), AppConfig.getPageMaxLimit()),
+                    AppConfig.getListSnapshotMaxBooks(), AppConfig.getListSnapshotRebuildDelayMs());
+            bookChangePublisher.addListener(bookListSnapshot);
+            bookListSnapshot.scheduleRebuild(); // Primera construcción, en segundo plano
+        }
+        if (bookChangeFeed == null) {
+            bookChangeFeed = new BookChangeFeed(bookMapper, AppConfig.getChangeFeedCapacity(), AppConfig.getChangeFeedHeartbeatMs());
+            bookChangePublisher.addListener(bookChangeFeed);
+            MetricsConfig.getRegistry().gauge("book.changes.subscribers", bookChangeFeed, BookChangeFeed::subscriberCount);
         }
         if (bookController == null) {
-            bookController = new BookController(bookService);
+            bookController = new BookController(bookService, bookImportService, bookSearchService, catalogVersion,
+                    bookListSnapshot, bookChangeFeed);
         }
         if (bookRoutes == null) {
             bookRoutes = new BookRoutes(bookController);
         }
         return bookRoutes;
     }
+
+    /**
+     * Inicializa y retorna una instancia de AdminRoutes con sus dependencias resueltas.
+     * @return Una instancia de AdminRoutes.
+     */
+    public static AdminRoutes getAdminRoutes() {
+        if (adminController == null) {
+            getBookDAO(); // Asegura que la caché (si está habilitada) ya exista
+            adminController = new AdminController(cachedBookDAO, DbConfig.getSqlProfiler());
+        }
+        if (adminRoutes == null) {
+            adminRoutes = new AdminRoutes(adminController);
+        }
+        return adminRoutes;
+    }
+
+    /**
+     * Libera los recursos de los componentes creados; en particular, escribe las altas agrupadas pendientes.
+     */
+    public static void close() {
+        if (coalescingBookDAO != null) {
+            coalescingBookDAO.close();
+        }
+        if (bookChangeFeed != null) {
+            bookChangeFeed.close();
+        }
+    }
+
+    /**
+     * Construye el DAO de libros con la medición de tiempos de consulta, envolviéndolo con la agrupación
+     * de altas, la agrupación de búsquedas por ID en consultas IN, la agrupación de lecturas idénticas concurrentes
+     * y la caché de lectura si están habilitadas en AppConfig (los aciertos de caché no cuentan como consultas,
+     * y las lecturas compartidas tampoco).
+     */
+    private static IBookDAO getBookDAO() {
+        if (bookDAO == null) {
+            bookDAO = new MeteredBookDAO(new BookDAO(), MetricsConfig.getRegistry());
+            if (AppConfig.isBookWriteCoalescingEnabled()) {
+                coalescingBookDAO = new CoalescingBookDAO(
+                        bookDAO,
+                        AppConfig.getBookWriteCoalescingWindowMs(),
+                        AppConfig.getBookWriteCoalescingMaxRows(),
+                        AppConfig.getBookWriteCoalescingMaxPending(),
+                        MetricsConfig.getRegistry());
+                bookDAO = coalescingBookDAO;
+            }
+            if (AppConfig.isBookReadBatchingEnabled()) {
+                bookDAO = new BatchingBookDAO(
+                        bookDAO,
+                        AppConfig.getBookReadBatchingWindowMs(),
+                        AppConfig.getBookReadBatchingMaxKeys(),
+                        MetricsConfig.getRegistry());
+            }
+            if (AppConfig.isBookReadSingleFlightEnabled()) {
+                bookDAO = new SingleFlightBookDAO(bookDAO, MetricsConfig.getRegistry());
+            }
+            if (AppConfig.isBookCacheEnabled()) {
+                cachedBookDAO = new CachedBookDAO(
+                        bookDAO,
+                        AppConfig.getBookCacheMaxSize(),
+                        Duration.ofSeconds(AppConfig.getBookCacheTtlSeconds()),
+                        Duration.ofSeconds(AppConfig.getBookCacheNegativeTtlSeconds()));
+                bookDAO = cachedBookDAO;
+            }
+        }
+        return bookDAO;
+    }
 }
\ No newline at end of file
@@ -1,26 +1,40 @@
 package org.example;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.javalin.Javalin;
 import io.javalin.json.JavalinJackson;
+import io.javalin.util.ConcurrencyUtil;
+import org.example.configs.AdmissionControlConfig;
 import org.example.configs.AppConfig;
 import org.example.configs.DbConfig;
 import org.example.configs.ExceptionHandlerConfig;
+import org.example.configs.JacksonConfig;
+import org.example.configs.LoggingConfig;
+import org.example.configs.MetricsConfig;
+import org.example.configs.ReadRoutingConfig;
+import org.example.configs.StartupConfig;
+import org.example.routes.AdminRoutes;
 import org.example.routes.BookRoutes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class Main {
-    public static void main(String[] args) {
-        DbConfig.init(); 
 
-        BookRoutes bookRoutes = DependencyInjector.getBookRoutes();
+    private static final Logger logger = LoggerFactory.getLogger(Main.class);
+
+    public static void main(String[] args) {
+        long startNanos = System.nanoTime();
+        LoggingConfig.configure();
+        // El pool y el esquema se inicializan mientras se construye el servidor; las rutas esperan a la base de datos
+        CompletableFuture<Void> database = CompletableFuture.runAsync(DbConfig::init);
 
-        ObjectMapper jacksonMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        configureThreading();
 
         Javalin app = Javalin.create(config -> {
-            config.jsonMapper(new JavalinJackson(jacksonMapper));
+            config.jsonMapper(new JavalinJackson(JacksonConfig.getObjectMapper()));
             
             // --- IMPLEMENTACIÓN DE CORS ---
             config.plugins.enableCors(cors -> cors.add(it -> {
@@ -35,12 +49,26 @@ public class Main {
             }));
             // --- FIN DE IMPLEMENTACIÓN DE CORS ---
 
+            // Registra cabeceras y cuerpos de cada petición de forma síncrona: solo para desarrollo
+            if (AppConfig.isDevLoggingEnabled()) {
                 config.plugins.enableDevLogging();
+            }
         });
 
+        LoggingConfig.register(app); // Primero, para que el ID de correlación esté disponible en el resto
         ExceptionHandlerConfig.register(app); 
+        MetricsConfig.register(app);
+        StartupConfig.register(app);
+
+        awaitDatabase(database);
+        BookRoutes bookRoutes = DependencyInjector.getBookRoutes();
+        AdminRoutes adminRoutes = DependencyInjector.getAdminRoutes();
+
+        ReadRoutingConfig.register(app);
+        AdmissionControlConfig.register(app);
 
         bookRoutes.register(app);
+        adminRoutes.register(app);
 
         app.get("/", ctx -> ctx.json(Map.of(
             "status", "Ok",
@@ -51,15 +79,44 @@ public class Main {
 
         app.start(AppConfig.getServerHost(), AppConfig.getServerPort());
         
-        System.out.println("Servidor iniciado en http://" + AppConfig.getServerHost() + ":" + AppConfig.getServerPort());
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        logger.info("Servidor iniciado en http://{}:{} ({} ms).", AppConfig.getServerHost(), AppConfig.getServerPort(), elapsedMs);
+        StartupConfig.completeStartup(AppConfig.getServerHost(), AppConfig.getServerPort());
+    }
+
+    private static void awaitDatabase(CompletableFuture<Void> database) {
+        try {
+            database.join();
+        } catch (CompletionException e) {
+            // Se relanza el error original de DbConfig.init (por ejemplo, MySQL no disponible)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Selecciona entre hilos de plataforma (por defecto) e hilos virtuales para el pool de Jetty.
+     * Javalin usa hilos virtuales cuando 'useLoom' está activo y el JDK los soporta (Java 21+).
+     */
+    private static void configureThreading() {
+        boolean virtualThreads = AppConfig.isVirtualThreadsEnabled();
+        if (virtualThreads && !ConcurrencyUtil.isLoomAvailable()) {
+            logger.warn("SERVER_VIRTUAL_THREADS requiere Java 21 o superior. Se usarán hilos de plataforma.");
+        }
+        ConcurrencyUtil.INSTANCE.setUseLoom(virtualThreads);
     }
 
     private static void setupShutdownHook(Javalin app) {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            System.out.println("Cerrando la aplicación...");
+            logger.info("Cerrando la aplicación...");
+            DependencyInjector.close();
             DbConfig.close();
             app.stop();
-            System.out.println("Aplicación cerrada de forma segura.");
+            MetricsConfig.close();
+            logger.info("Aplicación cerrada de forma segura.");
+            LoggingConfig.close();
         }));
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package org.example.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia adaptativo AIMD (incremento aditivo, decremento multiplicativo).
+ * Cada petición terminada a tiempo sube el límite en 1/límite (es decir, +1 por "ronda" de peticiones),
+ * pero solo si el límite se está usando; cada petición lenta o fallida por sobrecarga lo multiplica por 0,9.
+ * Así, cuando la base de datos se ralentiza el límite baja solo y las peticiones sobrantes se rechazan
+ * de inmediato en lugar de esperar a que venza el timeout del pool.
+ */
+public class AimdConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private double limit; // Protegido por this
+    private volatile int currentLimit;
+
+    /**
+     * @param initialLimit El límite inicial de peticiones simultáneas.
+     * @param minLimit El límite mínimo, que se mantiene aunque todas las peticiones sean lentas.
+     * @param maxLimit El límite máximo.
+     * @param latencyThresholdMs La duración a partir de la cual una petición se considera lenta.
+     */
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.currentLimit = (int) limit;
+    }
+
+    /**
+     * Intenta admitir una petición.
+     * @return true si se admitió (y debe llamarse a {@link #release} al terminar), false si se alcanzó el límite.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera una petición admitida y ajusta el límite según su resultado.
+     * @param latencyNanos La duración de la petición.
+     * @param overloaded true si la petición falló por falta de capacidad (por ejemplo, timeout del pool).
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (overloaded || latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (inFlightBefore * 2 >= currentLimit) {
+            // Con poca carga no se sabe si un límite mayor sería seguro, así que no se sube
+            increase();
+        }
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        currentLimit = (int) limit;
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+        currentLimit = (int) limit;
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.configs;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.admission.AimdConcurrencyLimiter;
+import org.example.exceptions.ServiceOverloadedException;
+
+import java.util.Set;
+
+/**
+ * Control de admisión delante de las rutas de libros.
+ * Las lecturas y las escrituras tienen límites de concurrencia adaptativos separados, para que una avalancha
+ * de listados no deje sin capacidad a las altas. Las peticiones que superan el límite se rechazan al momento
+ * con un 503 y Retry-After, en lugar de ocupar un hilo esperando una conexión hasta el timeout del pool.
+ * La importación, la exportación y el stream de cambios quedan fuera: son largas por naturaleza
+ * (el stream dura lo que la conexión del cliente) y la importación ya tiene su propio límite.
+ */
+public class AdmissionControlConfig {
+
+    private static final String API_PREFIX = "/api/books";
+    private static final Set<String> EXCLUDED_PATHS = Set.of("/api/books/import", "/api/books/export", "/api/books/changes/stream");
+    private static final String LIMITER_ATTRIBUTE = "admission.limiter";
+    private static final String START_ATTRIBUTE = "admission.start";
+    private static final int MIN_LIMIT = 1;
+
+    public static void register(Javalin app) {
+        if (!AppConfig.isAdmissionControlEnabled()) {
+            return;
+        }
+        long latencyThresholdMs = AppConfig.getAdmissionLatencyThresholdMs();
+        AimdConcurrencyLimiter readLimiter = createLimiter(AppConfig.getAdmissionReadMaxLimit(), latencyThresholdMs);
+        AimdConcurrencyLimiter writeLimiter = createLimiter(AppConfig.getAdmissionWriteMaxLimit(), latencyThresholdMs);
+
+        MeterRegistry registry = MetricsConfig.getRegistry();
+        Counter readRejected = registerMeters(registry, "read", readLimiter);
+        Counter writeRejected = registerMeters(registry, "write", writeLimiter);
+
+        app.before(ctx -> {
+            if (!isAdmissionControlled(ctx)) {
+                return;
+            }
+            boolean write = isWrite(ctx);
+            AimdConcurrencyLimiter limiter = write ? writeLimiter : readLimiter;
+            if (!limiter.tryAcquire()) {
+                (write ? writeRejected : readRejected).increment();
+                throw new ServiceOverloadedException("El servidor está saturado. Inténtelo de nuevo en unos segundos.", 1);
+            }
+            ctx.attribute(LIMITER_ATTRIBUTE, limiter);
+            ctx.attribute(START_ATTRIBUTE, System.nanoTime());
+        });
+
+        // Los manejadores "after" se ejecutan también cuando la petición terminó con una excepción
+        app.after(ctx -> {
+            AimdConcurrencyLimiter limiter = ctx.attribute(LIMITER_ATTRIBUTE);
+            if (limiter == null) {
+                return;
+            }
+            long start = ctx.attribute(START_ATTRIBUTE);
+            limiter.release(System.nanoTime() - start, ctx.statusCode() >= 500);
+        });
+    }
+
+    /**
+     * El límite arranca en una cuarta parte del máximo y sube a medida que las peticiones terminan a tiempo.
+     */
+    private static AimdConcurrencyLimiter createLimiter(int maxLimit, long latencyThresholdMs) {
+        return new AimdConcurrencyLimiter(Math.max(MIN_LIMIT, maxLimit / 4), MIN_LIMIT, maxLimit, latencyThresholdMs);
+    }
+
+    private static Counter registerMeters(MeterRegistry registry, String kind, AimdConcurrencyLimiter limiter) {
+        Gauge.builder("http.admission.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .description("Límite actual de peticiones simultáneas")
+                .tag("kind", kind)
+                .register(registry);
+        Gauge.builder("http.admission.in.flight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .description("Peticiones admitidas en curso")
+                .tag("kind", kind)
+                .register(registry);
+        return Counter.builder("http.admission.rejected")
+                .description("Peticiones rechazadas por el control de admisión")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    private static boolean isAdmissionControlled(Context ctx) {
+        String path = ctx.path();
+        return path.startsWith(API_PREFIX) && !EXCLUDED_PATHS.contains(path) && ctx.method() != HandlerType.OPTIONS;
+    }
+
+    private static boolean isWrite(Context ctx) {
+        HandlerType method = ctx.method();
+        return method == HandlerType.POST || method == HandlerType.PUT
+                || method == HandlerType.PATCH || method == HandlerType.DELETE;
+    }
+}
@@ -1,8 +1,14 @@
 package org.example.configs;
 
 import io.github.cdimascio.dotenv.Dotenv;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class AppConfig {
+    private static final Logger logger = LoggerFactory.getLogger(AppConfig.class);
     private static final Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
 
     public static String getDbUrl() {
@@ -21,10 +27,304 @@ public class AppConfig {
         return Integer.parseInt(dotenv.get("DB_MAX_POOL_SIZE", "10"));
     }
 
+    public static long getDbConnectionTimeoutMs() {
+        return Long.parseLong(dotenv.get("DB_CONNECTION_TIMEOUT_MS", "30000"));
+    }
+
+    /**
+     * Número máximo de conexiones que pueden estar prestadas a la vez (bulkhead delante del pool).
+     * Por defecto es el tamaño del pool cuando se usan hilos virtuales, y 0 (deshabilitado) en otro caso.
+     */
+    public static int getDbBulkheadPermits() {
+        String defaultPermits = isVirtualThreadsEnabled() ? String.valueOf(getDbMaxPoolSize()) : "0";
+        return Integer.parseInt(dotenv.get("DB_BULKHEAD_PERMITS", defaultPermits));
+    }
+
+    public static long getDbBulkheadTimeoutMs() {
+        return Long.parseLong(dotenv.get("DB_BULKHEAD_TIMEOUT_MS", "5000"));
+    }
+
+    /**
+     * URLs JDBC de las réplicas de lectura, separadas por comas. Vacío (por defecto) para no usar réplicas.
+     */
+    public static List<String> getDbReplicaUrls() {
+        String urls = dotenv.get("DB_REPLICA_URLS", "");
+        List<String> replicaUrls = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (!url.isBlank()) {
+                replicaUrls.add(url.trim());
+            }
+        }
+        return replicaUrls;
+    }
+
+    public static String getDbReplicaUsername() {
+        return dotenv.get("DB_REPLICA_USERNAME", getDbUsername());
+    }
+
+    public static String getDbReplicaPassword() {
+        return dotenv.get("DB_REPLICA_PASSWORD", getDbPassword());
+    }
+
+    /**
+     * Espera máxima por una conexión de una réplica antes de leer del primario. Es independiente
+     * de DB_CONNECTION_TIMEOUT_MS (30 s por defecto), que bloquearía cada lectura si la réplica cae.
+     * Hikari no admite menos de 250 ms.
+     */
+    public static long getDbReplicaConnectionTimeoutMs() {
+        return Long.parseLong(dotenv.get("DB_REPLICA_CONNECTION_TIMEOUT_MS", "1000"));
+    }
+
+    public static long getDbReplicaHealthCheckIntervalMs() {
+        return Long.parseLong(dotenv.get("DB_REPLICA_HEALTH_CHECK_INTERVAL_MS", "5000"));
+    }
+
+    /**
+     * Retraso máximo de replicación que se asume. Durante este tiempo tras escribir, las lecturas
+     * de ese cliente van al primario (read-your-writes).
+     */
+    public static long getDbReplicaMaxLagMs() {
+        return Long.parseLong(dotenv.get("DB_REPLICA_MAX_LAG_MS", "5000"));
+    }
+
+    public static int getDbBatchSize() {
+        return Integer.parseInt(dotenv.get("DB_BATCH_SIZE", "500"));
+    }
+
+    public static int getBatchMaxItems() {
+        return Integer.parseInt(dotenv.get("BATCH_MAX_ITEMS", "10000"));
+    }
+
+    public static int getImportMaxConcurrent() {
+        return Integer.parseInt(dotenv.get("IMPORT_MAX_CONCURRENT", "2"));
+    }
+
+    public static int getImportQueueCapacity() {
+        return Integer.parseInt(dotenv.get("IMPORT_QUEUE_CAPACITY", "4"));
+    }
+
+    /**
+     * Filas por bloque al recorrer todo el catálogo con bases de datos distintas de MySQL
+     * (con MySQL, el recorrido usa el streaming fila a fila del driver).
+     */
+    public static int getDbExportFetchSize() {
+        return Integer.parseInt(dotenv.get("DB_EXPORT_FETCH_SIZE", "1000"));
+    }
+
+    /**
+     * Indica si las altas concurrentes de libros se agrupan en una sola transacción (group commit).
+     */
+    public static boolean isBookWriteCoalescingEnabled() {
+        return Boolean.parseBoolean(dotenv.get("BOOK_WRITE_COALESCING_ENABLED", "false"));
+    }
+
+    public static long getBookWriteCoalescingWindowMs() {
+        return Long.parseLong(dotenv.get("BOOK_WRITE_COALESCING_WINDOW_MS", "5"));
+    }
+
+    public static int getBookWriteCoalescingMaxRows() {
+        return Integer.parseInt(dotenv.get("BOOK_WRITE_COALESCING_MAX_ROWS", "100"));
+    }
+
+    public static int getBookWriteCoalescingMaxPending() {
+        return Integer.parseInt(dotenv.get("BOOK_WRITE_COALESCING_MAX_PENDING", "10000"));
+    }
+
+    /**
+     * Indica si las lecturas idénticas concurrentes de libros comparten una sola consulta (single-flight).
+     * Deshabilitado por defecto, como el resto de capas opcionales del DAO.
+     */
+    public static boolean isBookReadSingleFlightEnabled() {
+        return Boolean.parseBoolean(dotenv.get("BOOK_READ_SINGLE_FLIGHT_ENABLED", "false"));
+    }
+
+    /**
+     * Indica si las búsquedas por ID concurrentes se agrupan en una sola consulta IN (al estilo DataLoader).
+     * Cada búsqueda puede esperar hasta BOOK_READ_BATCHING_WINDOW_MS, así que solo compensa con mucha concurrencia.
+     */
+    public static boolean isBookReadBatchingEnabled() {
+        return Boolean.parseBoolean(dotenv.get("BOOK_READ_BATCHING_ENABLED", "false"));
+    }
+
+    public static long getBookReadBatchingWindowMs() {
+        return Long.parseLong(dotenv.get("BOOK_READ_BATCHING_WINDOW_MS", "2"));
+    }
+
+    public static int getBookReadBatchingMaxKeys() {
+        return Integer.parseInt(dotenv.get("BOOK_READ_BATCHING_MAX_KEYS", "100"));
+    }
+
+    public static boolean isBookCacheEnabled() {
+        return Boolean.parseBoolean(dotenv.get("BOOK_CACHE_ENABLED", "false"));
+    }
+
+    public static long getBookCacheMaxSize() {
+        return Long.parseLong(dotenv.get("BOOK_CACHE_MAX_SIZE", "10000"));
+    }
+
+    public static long getBookCacheTtlSeconds() {
+        return Long.parseLong(dotenv.get("BOOK_CACHE_TTL_SECONDS", "300"));
+    }
+
+    public static long getBookCacheNegativeTtlSeconds() {
+        return Long.parseLong(dotenv.get("BOOK_CACHE_NEGATIVE_TTL_SECONDS", "30"));
+    }
+
+    /**
+     * Número máximo de libros cuyo último ETag se recuerda para responder 304 sin consultar la base de datos.
+     */
+    public static long getEtagMaxRememberedBooks() {
+        return Long.parseLong(dotenv.get("ETAG_MAX_REMEMBERED_BOOKS", "100000"));
+    }
+
+    /**
+     * Número máximo de libros que se guardan ya serializados en la instantánea del listado (0 la deshabilita).
+     */
+    public static int getListSnapshotMaxBooks() {
+        return Integer.parseInt(dotenv.get("LIST_SNAPSHOT_MAX_BOOKS", "100000"));
+    }
+
+    public static long getListSnapshotRebuildDelayMs() {
+        return Long.parseLong(dotenv.get("LIST_SNAPSHOT_REBUILD_DELAY_MS", "200"));
+    }
+
+    /**
+     * Número de cambios del catálogo que se conservan para los deltas de /api/books/changes.
+     * Un cliente cuya versión sea anterior debe recargar el listado completo.
+     */
+    public static int getChangeFeedCapacity() {
+        return Integer.parseInt(dotenv.get("CHANGE_FEED_CAPACITY", "10000"));
+    }
+
+    public static long getChangeFeedHeartbeatMs() {
+        return Long.parseLong(dotenv.get("CHANGE_FEED_HEARTBEAT_MS", "15000"));
+    }
+
+    public static int getPageDefaultLimit() {
+        return Integer.parseInt(dotenv.get("PAGE_DEFAULT_LIMIT", "50"));
+    }
+
+    public static int getPageMaxLimit() {
+        return Integer.parseInt(dotenv.get("PAGE_MAX_LIMIT", "500"));
+    }
+
+    public static int getSearchDefaultLimit() {
+        return Integer.parseInt(dotenv.get("SEARCH_DEFAULT_LIMIT", "20"));
+    }
+
+    public static int getSearchMaxLimit() {
+        return Integer.parseInt(dotenv.get("SEARCH_MAX_LIMIT", "100"));
+    }
+
+    /**
+     * Indica si las rutas de libros tienen control de admisión con límites de concurrencia adaptativos.
+     */
+    public static boolean isAdmissionControlEnabled() {
+        return Boolean.parseBoolean(dotenv.get("ADMISSION_CONTROL_ENABLED", "false"));
+    }
+
+    public static int getAdmissionReadMaxLimit() {
+        return Integer.parseInt(dotenv.get("ADMISSION_READ_MAX_LIMIT", "200"));
+    }
+
+    public static int getAdmissionWriteMaxLimit() {
+        return Integer.parseInt(dotenv.get("ADMISSION_WRITE_MAX_LIMIT", "50"));
+    }
+
+    /**
+     * Duración a partir de la cual una petición se considera lenta y hace bajar el límite de concurrencia.
+     */
+    public static long getAdmissionLatencyThresholdMs() {
+        return Long.parseLong(dotenv.get("ADMISSION_LATENCY_THRESHOLD_MS", "500"));
+    }
+
+    /**
+     * Indica si, tras arrancar, el servidor precalienta los pools y las rutas antes de declararse disponible en /ready.
+     */
+    public static boolean isStartupWarmupEnabled() {
+        return Boolean.parseBoolean(dotenv.get("STARTUP_WARMUP_ENABLED", "false"));
+    }
+
+    /**
+     * Número de veces que se recorre el conjunto de peticiones sintéticas del calentamiento.
+     */
+    public static int getStartupWarmupIterations() {
+        return Integer.parseInt(dotenv.get("STARTUP_WARMUP_ITERATIONS", "500"));
+    }
+
+    /**
+     * Indica si la aplicación termina al completar el calentamiento (para generar el archivo AppCDS).
+     */
+    public static boolean isStartupExitAfterWarmup() {
+        return Boolean.parseBoolean(dotenv.get("STARTUP_EXIT_AFTER_WARMUP", "false"));
+    }
+
+    /**
+     * Nivel de log por defecto (TRACE, DEBUG, INFO, WARN, ERROR u OFF).
+     */
+    public static String getLogLevel() {
+        return dotenv.get("LOG_LEVEL", "INFO");
+    }
+
+    /**
+     * Niveles de log por categoría, separados por comas (por ejemplo, "org.example.daos=DEBUG,com.zaxxer.hikari=WARN").
+     */
+    public static String getLogLevels() {
+        return dotenv.get("LOG_LEVELS", "");
+    }
+
+    /**
+     * Intervalo mínimo entre dos trazas completas de la misma excepción; las repeticiones se resumen en una línea.
+     */
+    public static long getLogStackTraceIntervalSeconds() {
+        return Long.parseLong(dotenv.get("LOG_STACK_TRACE_INTERVAL_SECONDS", "60"));
+    }
+
+    /**
+     * Indica si Javalin registra cada petición con todo detalle (cabeceras y cuerpos). Solo para desarrollo.
+     */
+    public static boolean isDevLoggingEnabled() {
+        return Boolean.parseBoolean(dotenv.get("DEV_LOGGING_ENABLED", "false"));
+    }
+
+    /**
+     * Indica si se perfilan las sentencias SQL (latencia, filas, tiempo de obtención de conexión y consultas lentas).
+     * Deshabilitado por defecto: envuelve cada conexión, sentencia y resultado en proxies.
+     */
+    public static boolean isSqlProfilingEnabled() {
+        return Boolean.parseBoolean(dotenv.get("SQL_PROFILING_ENABLED", "false"));
+    }
+
+    /**
+     * Duración a partir de la cual una sentencia se registra como consulta lenta.
+     */
+    public static long getSqlSlowQueryThresholdMs() {
+        return Long.parseLong(dotenv.get("SQL_SLOW_QUERY_THRESHOLD_MS", "200"));
+    }
+
+    public static int getSqlSlowQueryLogSize() {
+        return Integer.parseInt(dotenv.get("SQL_SLOW_QUERY_LOG_SIZE", "100"));
+    }
+
+    /**
+     * Indica si se captura el plan (EXPLAIN) de las consultas lentas, en segundo plano (solo con el perfilado activo).
+     * Deshabilitado por defecto: ejecuta sentencias adicionales contra la base de datos.
+     */
+    public static boolean isSqlExplainEnabled() {
+        return Boolean.parseBoolean(dotenv.get("SQL_EXPLAIN_ENABLED", "false"));
+    }
+
     public static int getServerPort() {
         return Integer.parseInt(dotenv.get("SERVER_PORT", "7070"));
     }
 
+    /**
+     * Indica si las peticiones deben atenderse en hilos virtuales (requiere Java 21).
+     */
+    public static boolean isVirtualThreadsEnabled() {
+        return Boolean.parseBoolean(dotenv.get("SERVER_VIRTUAL_THREADS", "false"));
+    }
+
     public static String getServerHost() {
         return dotenv.get("SERVER_HOST", "localhost");
     }
@@ -32,8 +332,8 @@ public class AppConfig {
     private static String getRequiredEnv(String key) {
         String value = dotenv.get(key);
         if (value == null || value.trim().isEmpty()) {
-            System.err.println("Error: La variable de entorno requerida '" + key + "' no está definida.");
-            System.err.println("Asegúrate de tener un archivo .env válido en la raíz del proyecto.");
+            logger.error("La variable de entorno requerida '{}' no está definida. "
+                    + "Asegúrate de tener un archivo .env válido en la raíz del proyecto.", key);
             throw new IllegalStateException("Variable de entorno requerida no encontrada: " + key);
         }
         return value;
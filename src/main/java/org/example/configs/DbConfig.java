@@ -2,14 +2,54 @@ package org.example.configs;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.example.metrics.SqlProfiler;
 import org.intellij.lang.annotations.Language;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 public class DbConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DbConfig.class);
+
     private static HikariDataSource dataSource;
+    // Bulkhead opcional: con hilos virtuales puede haber miles de peticiones concurrentes, y este semáforo
+    // justo (FIFO) limita cuántas compiten a la vez por el pool en lugar de saturar la cola de espera de Hikari
+    private static Semaphore connectionBulkhead;
+
+    // Réplicas de lectura opcionales (DB_REPLICA_URLS), elegidas por turnos entre las que pasan el chequeo de salud
+    private static final List<Replica> replicas = new ArrayList<>();
+    private static final AtomicInteger nextReplica = new AtomicInteger();
+    private static ScheduledExecutorService replicaHealthChecker;
+    // Marca, para el hilo actual, que las lecturas deben ir al primario (read-your-writes, cargas de caché...)
+    private static final ThreadLocal<Boolean> primaryReads = ThreadLocal.withInitial(() -> false);
+
+    private record Replica(String name, HikariDataSource dataSource, AtomicBoolean healthy) {}
+
+    // Perfilado de las sentencias que se ejecutan con las conexiones de los pools (null si está desactivado)
+    private static SqlProfiler sqlProfiler;
+    // Un pool de una sola conexión por cada pool perfilado, para los EXPLAIN de sus consultas lentas (se crean al usarse)
+    private static final ConcurrentHashMap<String, HikariDataSource> explainPools = new ConcurrentHashMap<>();
 
     public static void init() {
         HikariConfig config = new HikariConfig();
@@ -17,24 +57,258 @@ public class DbConfig {
         config.setUsername(AppConfig.getDbUsername());
         config.setPassword(AppConfig.getDbPassword());
         config.setMaximumPoolSize(AppConfig.getDbMaxPoolSize());
+        config.setConnectionTimeout(AppConfig.getDbConnectionTimeoutMs());
+        config.setPoolName("books-pool");
+        // Publica hikaricp_connections_active/idle/pending y el tiempo de obtención de conexión (acquire)
+        config.setMetricRegistry(MetricsConfig.getRegistry());
         config.addDataSourceProperty("cachePrepStmts", "true");
         config.addDataSourceProperty("prepStmtCacheSize", "250");
         config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        // Convierte los lotes de INSERT (addBatch/executeBatch) en INSERT de múltiples filas
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
 
         dataSource = new HikariDataSource(config);
+
+        int bulkheadPermits = AppConfig.getDbBulkheadPermits();
+        if (bulkheadPermits > 0) {
+            connectionBulkhead = new Semaphore(bulkheadPermits, true);
+        }
         
+        if (AppConfig.isSqlProfilingEnabled()) {
+            sqlProfiler = new SqlProfiler(MetricsConfig.getRegistry(), AppConfig.getSqlSlowQueryThresholdMs(),
+                    AppConfig.getSqlSlowQueryLogSize(), AppConfig.isSqlExplainEnabled(), DbConfig::getExplainConnection);
+        }
+
+        initReplicas();
         initDatabaseSchema();
     }
 
+    /**
+     * Crea un pool por cada réplica configurada y arranca su chequeo de salud periódico.
+     * Una réplica caída no impide arrancar: queda marcada como no disponible hasta que responda.
+     */
+    private static void initReplicas() {
+        List<String> replicaUrls = AppConfig.getDbReplicaUrls();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "books-replica-" + (i + 1);
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(replicaUrls.get(i));
+            config.setUsername(AppConfig.getDbReplicaUsername());
+            config.setPassword(AppConfig.getDbReplicaPassword());
+            config.setMaximumPoolSize(AppConfig.getDbMaxPoolSize());
+            // Espera corta: si la réplica falla entre dos chequeos, la lectura pasa pronto al primario
+            config.setConnectionTimeout(AppConfig.getDbReplicaConnectionTimeoutMs());
+            config.setPoolName(name);
+            config.setReadOnly(true);
+            config.setInitializationFailTimeout(-1);
+            config.setMetricRegistry(MetricsConfig.getRegistry());
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            replicas.add(new Replica(name, new HikariDataSource(config), new AtomicBoolean(false)));
+        }
+        if (replicas.isEmpty()) {
+            return;
+        }
+
+        replicaHealthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkReplicaHealth(); // Primer chequeo antes de atender peticiones
+        long intervalMs = AppConfig.getDbReplicaHealthCheckIntervalMs();
+        replicaHealthChecker.scheduleWithFixedDelay(DbConfig::checkReplicaHealth, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Réplicas de lectura configuradas: {}.", replicas.size());
+    }
+
+    private static void checkReplicaHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection conn = replica.dataSource().getConnection()) {
+                healthy = conn.isValid(2);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (replica.healthy().getAndSet(healthy) != healthy) {
+                if (healthy) {
+                    logger.info("Réplica {} disponible.", replica.name());
+                } else {
+                    logger.warn("Réplica {} NO disponible.", replica.name());
+                }
+            }
+        }
+    }
+
+    public static boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
     public static Connection getConnection() throws SQLException {
         if (dataSource == null) {
             throw new SQLException("El pool de conexiones (DataSource) no ha sido inicializado.");
         }
-        return dataSource.getConnection();
+        long start = System.nanoTime();
+        Connection conn = connectionBulkhead == null ? dataSource.getConnection() : getConnectionThroughBulkhead();
+        return profiled(conn, "books-pool", start);
+    }
+
+    public static SqlProfiler getSqlProfiler() {
+        return sqlProfiler;
     }
 
     /**
-     * Crea la tabla 'books' si no existe.
+     * Devuelve una conexión para consultas de solo lectura: de una réplica sana (por turnos) si hay réplicas
+     * y el hilo actual no exige leer del primario; en otro caso, del primario.
+     * Si la réplica elegida falla al dar la conexión, se marca como no disponible y se usa el primario.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        if (replicas.isEmpty() || primaryReads.get()) {
+            return getConnection();
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy().get()) {
+                continue;
+            }
+            try {
+                long acquireStart = System.nanoTime();
+                return profiled(replica.dataSource().getConnection(), replica.name(), acquireStart);
+            } catch (SQLException e) {
+                replica.healthy().set(false); // El chequeo periódico la volverá a habilitar
+                logger.warn("Réplica {} no disponible: {}", replica.name(), e.getMessage());
+            }
+        }
+        return getConnection();
+    }
+
+    /**
+     * Indica si las lecturas del hilo actual deben ir al primario (por ejemplo, durante una petición
+     * de un cliente que acaba de escribir). Debe restablecerse con {@link #clearPrimaryReads()}.
+     */
+    public static void setPrimaryReads(boolean primary) {
+        primaryReads.set(primary);
+    }
+
+    public static boolean isPrimaryReads() {
+        return primaryReads.get();
+    }
+
+    public static void clearPrimaryReads() {
+        primaryReads.remove();
+    }
+
+    /**
+     * Ejecuta la operación leyendo del primario, para datos que no pueden estar retrasados
+     * respecto a las escrituras (por ejemplo, lo que se guarda en caché).
+     */
+    public static <T> T readFromPrimary(Supplier<T> operation) {
+        boolean previous = primaryReads.get();
+        primaryReads.set(true);
+        try {
+            return operation.get();
+        } finally {
+            primaryReads.set(previous);
+        }
+    }
+
+    private static Connection getConnectionThroughBulkhead() throws SQLException {
+        try {
+            if (!connectionBulkhead.tryAcquire(AppConfig.getDbBulkheadTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Tiempo de espera agotado esperando una conexión a la base de datos.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido mientras se esperaba una conexión a la base de datos.", e);
+        }
+
+        try {
+            return releasingPermitOnClose(dataSource.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            connectionBulkhead.release();
+            throw e;
+        }
+    }
+
+    private static Connection profiled(Connection conn, String pool, long acquireStartNanos) {
+        return sqlProfiler == null ? conn : sqlProfiler.wrap(conn, pool, System.nanoTime() - acquireStartNanos);
+    }
+
+    /**
+     * Envuelve la conexión para devolver el permiso del bulkhead cuando se cierre (una sola vez).
+     */
+    private static Connection releasingPermitOnClose(Connection conn) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        try {
+                            conn.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                connectionBulkhead.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Obtiene la conexión para los EXPLAIN del pool indicado: una conexión propia y duradera contra el mismo servidor
+     * (primario o réplica), de un pool de tamaño 1 que se crea la primera vez. No se perfila ni ocupa el bulkhead.
+     */
+    private static Connection getExplainConnection(String pool) throws SQLException {
+        HikariDataSource explainPool = explainPools.computeIfAbsent(pool, DbConfig::createExplainPool);
+        if (explainPool == null) {
+            throw new SQLException("Pool desconocido para EXPLAIN: " + pool);
+        }
+        return explainPool.getConnection();
+    }
+
+    private static HikariDataSource createExplainPool(String pool) {
+        HikariDataSource source = pool.equals(dataSource.getPoolName()) ? dataSource : replicas.stream()
+                .filter(replica -> replica.name().equals(pool))
+                .map(Replica::dataSource)
+                .findFirst()
+                .orElse(null);
+        if (source == null) {
+            return null;
+        }
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(source.getJdbcUrl());
+        config.setUsername(source.getUsername());
+        config.setPassword(source.getPassword());
+        config.setMaximumPoolSize(1);
+        config.setMinimumIdle(1);
+        config.setConnectionTimeout(source.getConnectionTimeout());
+        config.setPoolName(pool + "-explain");
+        config.setReadOnly(source.isReadOnly());
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Abre una conexión nueva fuera del pool, para procesos largos (como las importaciones masivas)
+     * que no deben ocupar conexiones del tráfico interactivo. Quien la abre es responsable de cerrarla.
+     * Estas conexiones no se perfilan.
+     */
+    public static Connection openDedicatedConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", AppConfig.getDbUsername());
+        properties.setProperty("password", AppConfig.getDbPassword());
+        properties.setProperty("rewriteBatchedStatements", "true");
+        return DriverManager.getConnection(AppConfig.getDbUrl(), properties);
+    }
+
+    /**
+     * Crea la tabla 'books' si no existe, junto con el índice (title, id) usado por la paginación por cursor.
      */
     private static void initDatabaseSchema() {
         @Language("MySQL")
@@ -45,24 +319,92 @@ public class DbConfig {
                 "publication_year INT, " +
                 "isbn VARCHAR(20) UNIQUE, " +
                 "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                "INDEX idx_books_title_id (title, id)" +
                 ") ENGINE=InnoDB;";
 
+        @Language("MySQL")
+        String createTitleIndexSQL = "CREATE INDEX idx_books_title_id ON books (title, id)";
+
         try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-            System.out.println("Verificando y/o creando tabla 'books'...");
+            logger.info("Verificando y/o creando tabla 'books'...");
             stmt.execute(createBooksTableSQL);
-            System.out.println("Tabla 'books' lista.");
+            // Las tablas creadas antes de existir el índice no lo reciben con CREATE TABLE IF NOT EXISTS
+            if (!indexExists(conn, "books", "idx_books_title_id")) {
+                logger.info("Creando índice 'idx_books_title_id'...");
+                stmt.execute(createTitleIndexSQL);
+            }
+            logger.info("Tabla 'books' lista.");
             
         } catch (SQLException e) {
-            System.err.println("Error al inicializar el esquema de la base de datos: " + e.getMessage());
+            logger.error("Error al inicializar el esquema de la base de datos: {}", e.getMessage());
             throw new RuntimeException("Error fatal durante la inicialización de la BD.", e);
         }
     }
 
+    private static boolean indexExists(Connection conn, String table, String indexName) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Abre de antemano el mínimo de conexiones inactivas de cada pool (primario y réplicas) y las valida,
+     * para que las primeras peticiones no paguen el establecimiento de conexiones con MySQL.
+     */
+    public static void prewarmPools() {
+        long start = System.nanoTime();
+        int opened = prewarmPool(dataSource);
+        for (Replica replica : replicas) {
+            opened += prewarmPool(replica.dataSource());
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Pools de conexiones precalentados: {} conexiones ({} ms).", opened, elapsedMs);
+    }
+
+    private static int prewarmPool(HikariDataSource pool) {
+        // Se piden todas a la vez: Hikari solo crea conexiones nuevas cuando no quedan inactivas
+        List<Connection> borrowed = new ArrayList<>();
+        try {
+            for (int i = 0; i < pool.getMinimumIdle(); i++) {
+                Connection conn = pool.getConnection();
+                borrowed.add(conn);
+                conn.isValid(2);
+            }
+        } catch (SQLException e) {
+            logger.warn("No se pudo precalentar el pool {}: {}", pool.getPoolName(), e.getMessage());
+        } finally {
+            for (Connection conn : borrowed) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.warn("Error al devolver una conexión al pool: {}", e.getMessage());
+                }
+            }
+        }
+        return borrowed.size();
+    }
+
     public static void close() {
+        if (sqlProfiler != null) {
+            sqlProfiler.close();
+        }
+        explainPools.values().forEach(HikariDataSource::close);
+        if (replicaHealthChecker != null) {
+            replicaHealthChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            replica.dataSource().close();
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
-            System.out.println("Pool de conexiones cerrado.");
+            logger.info("Pool de conexiones cerrado.");
         }
     }
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package org.example.configs;
 import io.javalin.Javalin;
 import org.example.exceptions.DataAccessException;
 import org.example.exceptions.DuplicateIsbnException;
+import org.example.exceptions.ServiceOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.lang.IllegalArgumentException;
@@ -10,6 +13,8 @@ import java.lang.NumberFormatException;
 
 public class ExceptionHandlerConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(ExceptionHandlerConfig.class);
+
     public static void register(Javalin app) {
         // Maneja NoSuchElementException (generalmente un 404 Not Found)
         app.exception(NoSuchElementException.class, (e, ctx) -> {
@@ -31,17 +36,22 @@ public class ExceptionHandlerConfig {
             ctx.status(400).json(Map.of("success", false, "message", e.getMessage()));
         });
         
+        // Para peticiones rechazadas por falta de capacidad (503 Service Unavailable)
+        app.exception(ServiceOverloadedException.class, (e, ctx) -> {
+            ctx.header("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            ctx.status(503).json(Map.of("success", false, "message", e.getMessage()));
+        });
+
         // Manejador genérico para DataAccessException (errores de BD que no sean duplicados específicos)
         app.exception(DataAccessException.class, (e, ctx) -> {
-            System.err.println("Error en la capa de acceso a datos: " + e.getMessage());
-            e.printStackTrace(); // Para depuración
+            // La traza completa se imprime una vez por intervalo; durante una caída de la BD se repite en cada petición
+            logger.error("Error en la capa de acceso a datos en {} {}: {}", ctx.method(), ctx.path(), e.getMessage(), e);
             ctx.status(500).json(Map.of("success", false, "message", "Error de base de datos al procesar la solicitud."));
         });
 
         // Manejador "catch-all" para cualquier otra Exception no controlada
         app.exception(Exception.class, (e, ctx) -> {
-            System.err.println("Error no controlado: " + e.getMessage());
-            e.printStackTrace(); // ¡Importante para debugging!
+            logger.error("Error no controlado en {} {}: {}", ctx.method(), ctx.path(), e.getMessage(), e);
             ctx.status(500).json(Map.of("success", false, "message", "Error interno del servidor. Contacte al administrador."));
         });
         
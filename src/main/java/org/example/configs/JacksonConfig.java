@@ -0,0 +1,29 @@
+package org.example.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Proporciona el ObjectMapper compartido por Javalin y por los componentes que
+ * serializan JSON directamente (por ejemplo, la exportación en streaming),
+ * además de los ObjectMapper de los formatos binarios equivalentes (Smile y CBOR), con la misma configuración.
+ */
+public class JacksonConfig {
+    private static final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private static final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule());
+    private static final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule());
+
+    public static ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public static ObjectMapper getSmileMapper() {
+        return smileMapper;
+    }
+
+    public static ObjectMapper getCborMapper() {
+        return cborMapper;
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.configs;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.core.joran.spi.JoranException;
+import io.javalin.Javalin;
+import org.example.logging.SampledThrowableConverter;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Configuración del logging (SLF4J + logback, ver logback-app.xml) y de los identificadores de correlación.
+ * Cada petición lleva un identificador (la cabecera X-Request-Id del cliente o uno generado) que se devuelve
+ * en la respuesta y aparece en todas las líneas de log escritas mientras se atiende.
+ */
+public class LoggingConfig {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_KEY = "requestId";
+
+    private static final String CONFIG_RESOURCE = "/logback-app.xml";
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+
+    /**
+     * Carga logback-app.xml y aplica los niveles configurados en AppConfig: LOG_LEVEL para la raíz y LOG_LEVELS
+     * para categorías concretas (por ejemplo, "org.example.daos=DEBUG,com.zaxxer.hikari=WARN").
+     * Debe llamarse al principio del arranque.
+     */
+    public static void configure() {
+        SampledThrowableConverter.setInterval(Duration.ofSeconds(AppConfig.getLogStackTraceIntervalSeconds()));
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (!(loggerFactory instanceof LoggerContext context)) {
+            return; // Otra implementación de SLF4J: se usa su propia configuración
+        }
+        loadConfiguration(context);
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.toLevel(AppConfig.getLogLevel(), Level.INFO));
+        String levels = AppConfig.getLogLevels();
+        if (levels == null || levels.isBlank()) {
+            return;
+        }
+        for (String entry : levels.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalStateException("Entrada de LOG_LEVELS no válida (se espera categoría=NIVEL): " + entry);
+            }
+            context.getLogger(entry.substring(0, separator).trim())
+                    .setLevel(Level.toLevel(entry.substring(separator + 1).trim(), Level.INFO));
+        }
+    }
+
+    /**
+     * Sustituye la configuración que logback cargó por su cuenta (la de javalin-bundle) por la de la aplicación.
+     * Los Logger ya obtenidos siguen siendo válidos: pertenecen al mismo contexto.
+     */
+    private static void loadConfiguration(LoggerContext context) {
+        URL config = LoggingConfig.class.getResource(CONFIG_RESOURCE);
+        if (config == null) {
+            throw new IllegalStateException("No se encontró la configuración de logging " + CONFIG_RESOURCE + ".");
+        }
+        context.reset();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        try {
+            configurator.doConfigure(config);
+        } catch (JoranException e) {
+            throw new IllegalStateException("Configuración de logging no válida: " + e.getMessage(), e);
+        }
+    }
+
+    public static void register(Javalin app) {
+        app.before(ctx -> {
+            String requestId = ctx.header(REQUEST_ID_HEADER);
+            if (!isValidRequestId(requestId)) {
+                requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+            }
+            MDC.put(REQUEST_ID_KEY, requestId);
+            ctx.header(REQUEST_ID_HEADER, requestId);
+        });
+        // Los hilos del servidor se reutilizan entre peticiones
+        app.after(ctx -> MDC.remove(REQUEST_ID_KEY));
+    }
+
+    /**
+     * Vacía la cola del appender asíncrono y detiene logback; se llama al final del cierre de la aplicación.
+     */
+    public static void close() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.stop();
+        }
+    }
+
+    /**
+     * Solo se aceptan identificadores cortos de caracteres seguros, para que el cliente no pueda inyectar
+     * saltos de línea ni texto arbitrario en los logs.
+     */
+    private static boolean isValidRequestId(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            boolean safe = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!safe) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.configs;
+
+import io.javalin.Javalin;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.example.metrics.HttpRequestMetrics;
+
+/**
+ * Proporciona el registro de métricas compartido (Micrometer con formato Prometheus)
+ * y expone su contenido en GET /metrics.
+ * Incluye métricas de la JVM (GC, memoria, asignación, hilos), de las peticiones HTTP,
+ * del pool de conexiones (Hikari) y de las consultas del DAO.
+ */
+public class MetricsConfig {
+    private static final PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    private static final JvmGcMetrics jvmGcMetrics = new JvmGcMetrics();
+
+    static {
+        // JvmGcMetrics incluye las pausas de GC y los bytes asignados/promovidos (jvm_gc_memory_allocated_bytes_total)
+        jvmGcMetrics.bindTo(registry);
+        new JvmMemoryMetrics().bindTo(registry);
+        new JvmThreadMetrics().bindTo(registry);
+        new ClassLoaderMetrics().bindTo(registry);
+        new ProcessorMetrics().bindTo(registry);
+    }
+
+    public static MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Registra la medición de latencia por ruta y estado (manejadores before/after) y el endpoint GET /metrics.
+     */
+    public static void register(Javalin app) {
+        HttpRequestMetrics httpMetrics = new HttpRequestMetrics(registry);
+        app.before(httpMetrics::start);
+        app.after(httpMetrics::stop);
+
+        app.get("/metrics", ctx -> ctx.contentType(TextFormat.CONTENT_TYPE_004).result(registry.scrape()));
+    }
+
+    public static void close() {
+        jvmGcMetrics.close();
+        registry.close();
+    }
+}
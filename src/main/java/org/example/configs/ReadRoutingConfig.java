@@ -0,0 +1,57 @@
+package org.example.configs;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+
+import java.time.Duration;
+
+/**
+ * Consistencia read-your-writes cuando hay réplicas de lectura.
+ * Tras una escritura correcta de un cliente, sus lecturas van al primario durante el retraso máximo
+ * de replicación (DB_REPLICA_MAX_LAG_MS), para que el flujo "crear y recargar la lista" vea el cambio.
+ * El cliente se identifica por la cabecera X-Client-Id o, si no se envía, por su IP.
+ */
+public class ReadRoutingConfig {
+
+    private static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    public static void register(Javalin app) {
+        if (!DbConfig.hasReplicas()) {
+            return;
+        }
+        Cache<String, Boolean> recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(AppConfig.getDbReplicaMaxLagMs()))
+                .maximumSize(100_000)
+                .build();
+
+        app.before(ctx -> {
+            if (isWrite(ctx) || recentWriters.getIfPresent(clientKey(ctx)) != null) {
+                DbConfig.setPrimaryReads(true);
+            }
+        });
+
+        app.after(ctx -> {
+            try {
+                if (isWrite(ctx) && ctx.statusCode() < 400) {
+                    recentWriters.put(clientKey(ctx), Boolean.TRUE);
+                }
+            } finally {
+                DbConfig.clearPrimaryReads(); // Los hilos del servidor se reutilizan entre peticiones
+            }
+        });
+    }
+
+    private static boolean isWrite(Context ctx) {
+        HandlerType method = ctx.method();
+        return method == HandlerType.POST || method == HandlerType.PUT
+                || method == HandlerType.PATCH || method == HandlerType.DELETE;
+    }
+
+    private static String clientKey(Context ctx) {
+        String clientId = ctx.header(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : ctx.ip();
+    }
+}
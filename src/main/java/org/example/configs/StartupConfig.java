@@ -0,0 +1,118 @@
+package org.example.configs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.javalin.Javalin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Preparación del servidor tras el arranque y su endpoint de disponibilidad (GET /ready).
+ * Con STARTUP_WARMUP_ENABLED, antes de declararse disponible se precalientan los pools de conexiones
+ * y se lanzan peticiones sintéticas de solo lectura (y altas inválidas, que no escriben) contra los manejadores
+ * reales, para que el JIT compile las rutas calientes antes de recibir tráfico real.
+ * Mientras tanto, /ready responde 503, de modo que el balanceador no envíe tráfico a una instancia en frío.
+ */
+public class StartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    private static volatile boolean ready;
+
+    public static void register(Javalin app) {
+        app.get("/ready", ctx -> {
+            if (ready) {
+                ctx.status(200).json(Map.of("status", "ready"));
+            } else {
+                ctx.status(503).json(Map.of("status", "warming-up"));
+            }
+        });
+    }
+
+    /**
+     * Completa el arranque del servidor ya iniciado: calentamiento (si está habilitado) y disponibilidad.
+     * Se ejecuta en segundo plano para no retrasar el arranque del resto de la aplicación.
+     */
+    public static void completeStartup(String host, int port) {
+        if (!AppConfig.isStartupWarmupEnabled()) {
+            ready = true;
+            return;
+        }
+        Thread warmUpThread = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                DbConfig.prewarmPools();
+                warmUp(baseUrl(host, port), AppConfig.getStartupWarmupIterations());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                // Un calentamiento fallido no impide atender peticiones, solo las hace más lentas al principio
+                logger.warn("Error durante el calentamiento: {}", e.getMessage());
+            }
+            ready = true;
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            logger.info("Calentamiento completado en {} ms. Servidor disponible.", elapsedMs);
+            if (AppConfig.isStartupExitAfterWarmup()) {
+                // Usado al generar el archivo AppCDS: la JVM vuelca las clases cargadas al salir
+                System.exit(0);
+            }
+        }, "startup-warmup");
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
+    }
+
+    private static void warmUp(String baseUrl, int iterations) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        List<HttpRequest> requests = warmUpRequests(client, baseUrl);
+        for (int i = 0; i < iterations; i++) {
+            for (HttpRequest request : requests) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+        }
+    }
+
+    private static List<HttpRequest> warmUpRequests(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        List<HttpRequest> requests = new ArrayList<>();
+        requests.add(get(baseUrl + "/api/books"));
+        requests.add(HttpRequest.newBuilder(URI.create(baseUrl + "/api/books")).header("Accept-Encoding", "gzip").build());
+        requests.add(get(baseUrl + "/api/books?limit=10"));
+        requests.add(get(baseUrl + "/api/books?limit=10&fields=id,title,author"));
+        requests.add(get(baseUrl + "/api/books/search?q=a"));
+        requests.add(get(baseUrl + "/api/books/isbn/0"));
+        requests.add(get(baseUrl + "/api/books/0"));
+        // Alta inválida: recorre la lectura del cuerpo y la validación sin escribir en la base de datos
+        requests.add(HttpRequest.newBuilder(URI.create(baseUrl + "/api/books"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"\",\"author\":\"\",\"publicationYear\":0,\"isbn\":null}"))
+                .build());
+
+        // Si el catálogo tiene libros, se calienta también la lectura de un libro existente
+        HttpResponse<String> firstPage = client.send(get(baseUrl + "/api/books?limit=1"), HttpResponse.BodyHandlers.ofString());
+        JsonNode books = JacksonConfig.getObjectMapper().readTree(firstPage.body()).path("data");
+        if (books.size() > 0) {
+            int id = books.get(0).path("id").asInt();
+            requests.add(get(baseUrl + "/api/books/" + id));
+            requests.add(get(baseUrl + "/api/books/" + id + "?fields=title"));
+        }
+        return requests;
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).build();
+    }
+
+    private static String baseUrl(String host, int port) {
+        String warmUpHost = "0.0.0.0".equals(host) ? "localhost" : host;
+        return "http://" + warmUpHost + ":" + port;
+    }
+}
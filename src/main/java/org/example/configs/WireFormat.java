@@ -0,0 +1,86 @@
+package org.example.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Formatos en los que la API puede recibir y enviar sus cuerpos. Smile y CBOR son codificaciones binarias
+ * del mismo modelo de datos que JSON: los mismos DTOs y sobres de respuesta, con menos bytes y menos CPU
+ * al codificar y decodificar. Pensados para clientes internos de alto volumen; JSON sigue siendo el formato por defecto.
+ */
+public enum WireFormat {
+    JSON("application/json", JacksonConfig::getObjectMapper),
+    SMILE("application/x-jackson-smile", JacksonConfig::getSmileMapper),
+    CBOR("application/cbor", JacksonConfig::getCborMapper);
+
+    private final String mediaType;
+    private final Supplier<ObjectMapper> mapper;
+
+    WireFormat(String mediaType, Supplier<ObjectMapper> mapper) {
+        this.mediaType = mediaType;
+        this.mapper = mapper;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public ObjectMapper mapper() {
+        return mapper.get();
+    }
+
+    /**
+     * Formato de un cuerpo según su Content-Type; JSON si no se indica o no es un formato binario conocido.
+     */
+    public static WireFormat fromContentType(String contentType) {
+        WireFormat format = forMediaType(contentType);
+        return format == null ? JSON : format;
+    }
+
+    /**
+     * Formato de la respuesta según la cabecera Accept: el primero de la lista que sea un formato conocido
+     * o, si no hay ninguno, JSON. Los tipos con q=0 se consideran no aceptados.
+     */
+    public static WireFormat fromAccept(String accept) {
+        if (accept == null) {
+            return JSON;
+        }
+        for (String range : accept.split(",")) {
+            WireFormat format = forMediaType(range);
+            if (format != null && !isRefused(range)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    private static boolean isRefused(String range) {
+        for (String parameter : range.split(";")) {
+            String[] pair = parameter.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].equals("q")) {
+                try {
+                    return Double.parseDouble(pair[1].trim()) == 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static WireFormat forMediaType(String mediaType) {
+        if (mediaType == null) {
+            return null;
+        }
+        int parameters = mediaType.indexOf(';');
+        String type = (parameters < 0 ? mediaType : mediaType.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+        for (WireFormat format : values()) {
+            if (format.mediaType.equals(type)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.controllers;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.javalin.http.Context;
+import org.example.daos.impl.CachedBookDAO;
+import org.example.metrics.SqlProfiler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controlador con endpoints de administración y diagnóstico de la aplicación.
+ */
+public class AdminController {
+
+    private static final int DEFAULT_SQL_STATEMENTS_LIMIT = 20;
+
+    private final CachedBookDAO cachedBookDAO;
+    private final SqlProfiler sqlProfiler;
+
+    /**
+     * @param cachedBookDAO El DAO con caché, o null si la caché de libros está deshabilitada.
+     * @param sqlProfiler El perfilador de SQL, o null si el perfilado está deshabilitado.
+     */
+    public AdminController(CachedBookDAO cachedBookDAO, SqlProfiler sqlProfiler) {
+        this.cachedBookDAO = cachedBookDAO;
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    /**
+     * GET /api/admin/cache - Devuelve los contadores de la caché de libros.
+     */
+    public void getCacheStats(Context ctx) {
+        if (cachedBookDAO == null) {
+            ctx.status(200).json(Map.of("success", true, "data", Map.of("enabled", false)));
+            return;
+        }
+
+        CacheStats stats = cachedBookDAO.getStats();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("enabled", true);
+        data.put("size", cachedBookDAO.getEstimatedSize());
+        data.put("hits", stats.hitCount());
+        data.put("misses", stats.missCount());
+        data.put("hitRate", stats.hitRate());
+        data.put("evictions", stats.evictionCount());
+        data.put("loadFailures", stats.loadFailureCount());
+        data.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        ctx.status(200).json(Map.of("success", true, "data", data));
+    }
+
+    /**
+     * GET /api/admin/sql - Devuelve las sentencias con más tiempo acumulado (parámetro 'limit', 20 por defecto)
+     * y las últimas consultas lentas, de la más reciente a la más antigua, con su plan si ya se capturó.
+     */
+    public void getSqlProfile(Context ctx) {
+        if (sqlProfiler == null) {
+            ctx.status(200).json(Map.of("success", true, "data", Map.of("enabled", false)));
+            return;
+        }
+
+        int limit = parseLimit(ctx.queryParam("limit"));
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("enabled", true);
+        data.put("slowQueryThresholdMs", sqlProfiler.getSlowQueryThresholdMs());
+        data.put("statements", sqlProfiler.topStatements(limit));
+        data.put("slowQueries", sqlProfiler.slowQueries());
+        ctx.status(200).json(Map.of("success", true, "data", data));
+    }
+
+    /**
+     * DELETE /api/admin/sql - Reinicia las estadísticas, las consultas lentas y los planes capturados.
+     */
+    public void resetSqlProfile(Context ctx) {
+        if (sqlProfiler != null) {
+            sqlProfiler.reset();
+        }
+        ctx.status(204);
+    }
+
+    private int parseLimit(String limitParam) {
+        if (limitParam == null || limitParam.isBlank()) {
+            return DEFAULT_SQL_STATEMENTS_LIMIT;
+        }
+        try {
+            int limit = Integer.parseInt(limitParam);
+            if (limit > 0) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa con el mismo mensaje que un valor fuera de rango
+        }
+        throw new IllegalArgumentException("El parámetro 'limit' debe ser un número entero mayor que 0.");
+    }
+}
@@ -1,12 +1,31 @@
 package org.example.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.sse.SseClient;
+import org.example.configs.JacksonConfig;
+import org.example.configs.WireFormat;
+import org.example.models.BookField;
+import org.example.models.dtos.BookChangeDTO;
+import org.example.models.dtos.BookChangesDTO;
 import org.example.models.dtos.BookCreateDTO;
 import org.example.models.dtos.BookUpdateDTO;
+import org.example.services.BookImportService;
+import org.example.services.BookSearchService;
 import org.example.services.BookService;
+import org.example.services.CatalogVersion;
+import org.example.services.changes.BookChangeFeed;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException; // Para 404 Not Found
+import java.util.Set;
 
 /**
  * Controlador que maneja las peticiones HTTP para el recurso 'Book'.
@@ -15,9 +34,21 @@ import java.util.NoSuchElementException; // Para 404 Not Found
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookSearchService bookSearchService;
+    private final CatalogVersion catalogVersion;
+    private final BookListSnapshot bookListSnapshot;
+    private final BookChangeFeed bookChangeFeed;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService,
+                          BookSearchService bookSearchService, CatalogVersion catalogVersion,
+                          BookListSnapshot bookListSnapshot, BookChangeFeed bookChangeFeed) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.bookSearchService = bookSearchService;
+        this.catalogVersion = catalogVersion;
+        this.bookListSnapshot = bookListSnapshot;
+        this.bookChangeFeed = bookChangeFeed;
     }
 
     /**
@@ -25,52 +56,350 @@ public class BookController {
      */
     public void create(Context ctx) {
         try {
-            BookCreateDTO bookDTO = ctx.bodyAsClass(BookCreateDTO.class);
+            BookCreateDTO bookDTO = ContentNegotiator.readBody(ctx, BookCreateDTO.class);
             var newBook = bookService.createBook(bookDTO);
-            ctx.status(201).json(Map.of("success", true, "message", "Libro creado con éxito.", "data", newBook));
+            ContentNegotiator.send(ctx.status(201), Map.of("success", true, "message", "Libro creado con éxito.", "data", newBook));
         } catch (IllegalArgumentException e) {
             // Captura errores de validación del servicio
-            ctx.status(400).json(Map.of("success", false, "message", e.getMessage()));
+            ContentNegotiator.send(ctx.status(400), Map.of("success", false, "message", e.getMessage()));
         }
     }
 
     /**
-     * GET /api/books/{id} - Obtiene un libro por su ID.
+     * POST /api/books/batch - Crea varios libros a partir de un array de libros.
+     * Los errores de cada elemento (validación, ISBN duplicado) se reportan individualmente.
+     */
+    public void createBatch(Context ctx) {
+        BookCreateDTO[] bookDTOs = ContentNegotiator.readBody(ctx, BookCreateDTO[].class);
+        var result = bookService.createBooks(bookDTOs == null ? List.of() : Arrays.asList(bookDTOs));
+        String message = "Lote procesado: " + result.created() + " creados, " + result.failed() + " con errores.";
+        ContentNegotiator.send(ctx.status(200), Map.of("success", true, "message", message, "data", result));
+    }
+
+    /**
+     * POST /api/books/import?format=csv|ndjson - Importa libros leyendo el cuerpo de la petición en streaming.
+     * Si no se indica el formato, se deduce del Content-Type (text/csv para CSV; NDJSON en otro caso).
+     */
+    public void importBooks(Context ctx) {
+        String format = ctx.queryParam("format");
+        if (format == null) {
+            String contentType = ctx.contentType();
+            format = contentType != null && contentType.startsWith("text/csv") ? "csv" : "ndjson";
+        }
+        var result = bookImportService.importBooks(ctx.bodyInputStream(), format);
+        String message = "Importación terminada: " + result.imported() + " libros importados, " + result.rejected() + " líneas rechazadas.";
+        ContentNegotiator.send(ctx.status(200), Map.of("success", true, "message", message, "data", result));
+    }
+
+    /**
+     * GET /api/books/imports - Obtiene el progreso de las importaciones recientes.
+     */
+    public void getImports(Context ctx) {
+        ContentNegotiator.send(ctx.status(200), Map.of("success", true, "data", bookImportService.getRecentImports()));
+    }
+
+    /**
+     * GET /api/books/{id}?fields= - Obtiene un libro por su ID.
+     * Con 'fields' (p. ej. fields=id,title,author) solo se leen y devuelven esos campos.
+     * Responde 304 Not Modified si el ETag enviado en If-None-Match sigue vigente; cuando ese ETag
+     * es el último servido para el libro completo, la respuesta se da sin consultar la base de datos.
      */
     public void getOne(Context ctx) {
         // Parsear el ID del path. NumberFormatException será capturado por el manejador de Exception si el ID no es int.
         int id = Integer.parseInt(ctx.pathParam("id"));
-        
+        Set<BookField> fields = BookField.parse(ctx.queryParam("fields"));
+        if (fields != null) {
+            getOneFields(ctx, id, fields);
+            return;
+        }
+
+        WireFormat format = ContentNegotiator.responseFormat(ctx);
+        String knownTag = catalogVersion.knownBookTag(id);
+        if (knownTag != null && matchesIfNoneMatch(ctx, ContentNegotiator.variantTag(knownTag, format))) {
+            notModified(ctx, ContentNegotiator.variantTag(knownTag, format));
+            return;
+        }
+
+        long version = catalogVersion.current();
         // La NoSuchElementException será capturada por el manejador global de 404
         var book = bookService.getBookById(id);
-        ctx.status(200).json(Map.of("success", true, "data", book));
+        String bookTag = CatalogVersion.bookTag(book);
+        catalogVersion.rememberBookTag(id, bookTag, version);
+        String etag = ContentNegotiator.variantTag(bookTag, format);
+        if (matchesIfNoneMatch(ctx, etag)) {
+            notModified(ctx, etag);
+            return;
+        }
+        ctx.header(Header.ETAG, etag).header(Header.CACHE_CONTROL, "no-cache");
+        ContentNegotiator.send(ctx.status(200), Map.of("success", true, "data", book));
+    }
+
+    private void getOneFields(Context ctx, int id, Set<BookField> fields) {
+        var book = bookService.getBookById(id, fields);
+        String etag = ContentNegotiator.variantTag(CatalogVersion.bookFieldsTag(id, book), ContentNegotiator.responseFormat(ctx));
+        if (matchesIfNoneMatch(ctx, etag)) {
+            notModified(ctx, etag);
+            return;
+        }
+        ctx.header(Header.ETAG, etag).header(Header.CACHE_CONTROL, "no-cache");
+        ContentNegotiator.send(ctx.status(200), Map.of("success", true, "data", book));
     }
 
     /**
-     * GET /api/books - Obtiene todos los libros.
+     * GET /api/books?limit=&cursor=&fields= - Obtiene una página de libros ordenados por título.
+     * Con 'fields' (p. ej. fields=id,title,author) solo se leen y devuelven esos campos de cada libro.
+     * La respuesta incluye 'nextCursor', que debe enviarse como 'cursor' para obtener la página siguiente
+     * (es null cuando no quedan más libros).
      */
     public void getAll(Context ctx) {
-        var books = bookService.getAllBooks();
-        ctx.status(200).json(Map.of("success", true, "data", books));
+        String idsParam = ctx.queryParam("ids");
+        if (idsParam != null) {
+            getByIds(ctx, parseIds(idsParam));
+            return;
+        }
+        Integer limit = parseLimit(ctx.queryParam("limit"));
+        String cursor = ctx.queryParam("cursor");
+        Set<BookField> fields = BookField.parse(ctx.queryParam("fields"));
+
+        // Mientras el catálogo no cambie, la misma página tiene el mismo ETag: se responde 304 sin consultar MySQL
+        WireFormat format = ContentNegotiator.responseFormat(ctx);
+        long version = catalogVersion.current();
+        String etag = ContentNegotiator.variantTag(catalogVersion.collectionTag(version, cursor, limit, fields), format);
+        if (matchesIfNoneMatch(ctx, etag)) {
+            notModified(ctx, etag);
+            return;
+        }
+
+        // Con réplicas, justo después de un cambio la consulta puede devolver datos anteriores a esta versión
+        boolean taggable = catalogVersion.isSettled();
+
+        if (fields != null) {
+            var page = bookService.getAllBooks(cursor, limit, fields);
+            sendListPage(ctx, listResponse(page.items(), page.nextCursor()), taggable ? etag : null);
+            return;
+        }
+
+        // Con el tamaño de página por defecto, la respuesta puede estar ya serializada (y comprimida) en la instantánea
+        // (construida siempre desde el primario, así que su ETag es válido aunque haya réplicas)
+        // (la instantánea solo está en JSON)
+        BookListSnapshot.EncodedPage encodedPage = limit == null && format == WireFormat.JSON
+                ? bookListSnapshot.getPage(cursor, version) : null;
+        if (encodedPage != null) {
+            sendEncodedPage(ctx, encodedPage, etag);
+            return;
+        }
+
+        var page = bookService.getAllBooks(cursor, limit);
+        sendListPage(ctx, listResponse(page.items(), page.nextCursor()), taggable ? etag : null);
+    }
+
+    /**
+     * GET /api/books?ids=1,2,3 - Obtiene varios libros con una sola consulta, en el orden de los IDs pedidos.
+     * Los IDs inexistentes se omiten de 'data'.
+     */
+    private void getByIds(Context ctx, List<Integer> ids) {
+        WireFormat format = ContentNegotiator.responseFormat(ctx);
+        long version = catalogVersion.current();
+        String etag = ContentNegotiator.variantTag(catalogVersion.collectionTag(version, "ids", ids), format);
+        if (matchesIfNoneMatch(ctx, etag)) {
+            notModified(ctx, etag);
+            return;
+        }
+        boolean taggable = catalogVersion.isSettled();
+        var books = bookService.getBooksByIds(ids);
+        sendListPage(ctx, Map.of("success", true, "data", books), taggable ? etag : null);
+    }
+
+    private static void sendListPage(Context ctx, Map<String, Object> response, String etag) {
+        if (etag != null) {
+            ctx.header(Header.ETAG, etag);
+        }
+        ctx.header(Header.CACHE_CONTROL, "no-cache");
+        ContentNegotiator.send(ctx.status(200), response);
+    }
+
+    /**
+     * Cuerpo de la respuesta del listado. Lo comparte BookListSnapshot para que sus respuestas sean idénticas.
+     */
+    static Map<String, Object> listResponse(List<?> books, String nextCursor) {
+        // Map.of no admite valores null, y nextCursor es null en la última página
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("data", books);
+        response.put("nextCursor", nextCursor);
+        return response;
+    }
+
+    /**
+     * Envía una página de la instantánea en la mejor codificación que acepte el cliente.
+     * Al fijar Content-Encoding, Javalin no vuelve a comprimir la respuesta.
+     */
+    private void sendEncodedPage(Context ctx, BookListSnapshot.EncodedPage page, String etag) {
+        String acceptEncoding = ctx.header(Header.ACCEPT_ENCODING);
+        String encoding = null;
+        byte[] body = page.json();
+        if (acceptEncoding != null && page.brotli() != null && acceptEncoding.contains("br")) {
+            encoding = "br";
+            body = page.brotli();
+        } else if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            encoding = "gzip";
+            body = page.gzip();
+        }
+        // Cada codificación tiene bytes distintos, así que necesita su propio ETag fuerte (como variantTag con los formatos)
+        String encodedTag = encoding == null ? etag : etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+        ctx.header(Header.VARY, Header.ACCEPT + ", " + Header.ACCEPT_ENCODING);
+        if (matchesIfNoneMatch(ctx, encodedTag)) {
+            notModified(ctx, encodedTag);
+            return;
+        }
+        if (encoding != null) {
+            ctx.header(Header.CONTENT_ENCODING, encoding);
+        }
+        ctx.header(Header.ETAG, encodedTag).header(Header.CACHE_CONTROL, "no-cache");
+        ctx.status(200).contentType("application/json").result(body);
+    }
+
+    /**
+     * GET /api/books/search?q=&limit= - Busca libros por título, autor o ISBN, ordenados por relevancia.
+     * Cada palabra de la consulta puede coincidir completa o como prefijo ("garc mar" encuentra "García Márquez").
+     */
+    public void search(Context ctx) {
+        Integer limit = parseLimit(ctx.queryParam("limit"));
+        var books = bookSearchService.searchBooks(ctx.queryParam("q"), limit);
+        ContentNegotiator.send(ctx.status(200), Map.of("success", true, "data", books));
+    }
+
+    /**
+     * GET /api/books/isbn/{isbn} - Obtiene un libro por su ISBN.
+     * El ISBN se resuelve con el índice en memoria: si no existe, el 404 se responde sin consultar la base de datos.
+     */
+    public void getByIsbn(Context ctx) {
+        var book = bookService.getBookByIsbn(ctx.pathParam("isbn"));
+        String etag = ContentNegotiator.variantTag(CatalogVersion.bookTag(book), ContentNegotiator.responseFormat(ctx));
+        if (matchesIfNoneMatch(ctx, etag)) {
+            notModified(ctx, etag);
+            return;
+        }
+        ctx.header(Header.ETAG, etag).header(Header.CACHE_CONTROL, "no-cache");
+        ContentNegotiator.send(ctx.status(200), Map.of("success", true, "data", book));
+    }
+
+    /**
+     * GET /api/books/changes?since=&feedId= - Cambios del catálogo posteriores a la versión indicada.
+     * Sin 'since' solo devuelve la versión actual, desde la que el cliente pedirá los siguientes cambios.
+     * Si la versión ya no está en el feed (o es de otro arranque), responde resync = true y el cliente
+     * debe recargar el listado completo.
+     */
+    public void getChanges(Context ctx) {
+        BookChangesDTO changes = bookChangeFeed.changesSince(parseVersion(ctx.queryParam("since")), ctx.queryParam("feedId"));
+        ctx.header(Header.CACHE_CONTROL, "no-store");
+        ContentNegotiator.send(ctx.status(200), Map.of("success", true, "data", changes));
+    }
+
+    /**
+     * GET /api/books/changes/stream?since=&feedId= - Cambios del catálogo en directo (Server-Sent Events).
+     * El primer evento ("hello") indica el feedId, la versión de partida y si el cliente debe recargar el listado;
+     * después llega un evento "change" por cada cambio. El ID de cada evento es "feedId:versión", de modo que
+     * EventSource reanuda la suscripción donde la dejó al reconectarse (cabecera Last-Event-ID).
+     */
+    public void streamChanges(SseClient client) {
+        Context ctx = client.ctx();
+        Long since = parseVersion(ctx.queryParam("since"));
+        String feedId = ctx.queryParam("feedId");
+        String lastEventId = ctx.header("Last-Event-ID");
+        if (lastEventId != null && lastEventId.contains(":")) {
+            int separator = lastEventId.lastIndexOf(':');
+            feedId = lastEventId.substring(0, separator);
+            since = parseVersion(lastEventId.substring(separator + 1));
+        }
+        client.keepAlive();
+        Runnable unsubscribe = bookChangeFeed.subscribe(since, feedId, new BookChangeFeed.Subscriber() {
+            @Override
+            public void hello(BookChangesDTO state) {
+                send(client, "hello", state, state.feedId() + ":" + state.version());
+            }
+
+            @Override
+            public void change(BookChangeDTO change) {
+                send(client, "change", change, bookChangeFeed.feedId() + ":" + change.version());
+            }
+
+            @Override
+            public void heartbeat() {
+                client.sendComment("heartbeat");
+                if (client.terminated()) {
+                    throw new IllegalStateException("Cliente SSE desconectado.");
+                }
+            }
+        });
+        client.onClose(unsubscribe);
+    }
+
+    private static void send(SseClient client, String event, Object data, String id) {
+        client.sendEvent(event, data, id);
+        if (client.terminated()) {
+            throw new IllegalStateException("Cliente SSE desconectado.");
+        }
+    }
+
+    /**
+     * GET /api/books/export?format=ndjson|json - Exporta el catálogo completo.
+     * Cada libro se escribe en la respuesta a medida que se lee de la base de datos,
+     * por lo que la memoria utilizada no depende del tamaño del catálogo.
+     */
+    public void export(Context ctx) throws IOException {
+        String format = ctx.queryParam("format") == null ? "ndjson" : ctx.queryParam("format");
+        boolean ndjson;
+        switch (format) {
+            case "ndjson" -> ndjson = true;
+            case "json" -> ndjson = false;
+            default -> throw new IllegalArgumentException("Formato de exportación no soportado: " + format + ". Use 'ndjson' o 'json'.");
+        }
+
+        ctx.status(200);
+        ctx.contentType(ndjson ? "application/x-ndjson" : "application/json");
+        ctx.header("Content-Disposition", "attachment; filename=\"books." + format + "\"");
+
+        try (JsonGenerator generator = JacksonConfig.getObjectMapper().createGenerator(ctx.outputStream())) {
+            // En NDJSON cada documento va en su propia línea, sin el separador por defecto entre valores raíz
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            bookService.exportAllBooks(book -> {
+                try {
+                    generator.writeObject(book);
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error al escribir la exportación de libros.", e);
+                }
+            });
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
     }
 
     /**
      * PUT /api/books/{id} - Actualiza un libro existente.
+     * La respuesta es parcial: createdAt se omite si no se conoce sin volver a leer el libro.
      */
     public void update(Context ctx) {
         // Parsear el ID del path
         int id = Integer.parseInt(ctx.pathParam("id"));
         
         try {
-            BookUpdateDTO bookDTO = ctx.bodyAsClass(BookUpdateDTO.class);
+            BookUpdateDTO bookDTO = ContentNegotiator.readBody(ctx, BookUpdateDTO.class);
             var updatedBook = bookService.updateBook(id, bookDTO);
-            ctx.status(200).json(Map.of("success", true, "message", "Libro actualizado con éxito.", "data", updatedBook));
+            ContentNegotiator.send(ctx.status(200), Map.of("success", true, "message", "Libro actualizado con éxito.", "data", updatedBook));
         } catch (NoSuchElementException e) {
             // Captura errores de "no encontrado" si el servicio lanza la excepción
-            ctx.status(404).json(Map.of("success", false, "message", e.getMessage()));
+            ContentNegotiator.send(ctx.status(404), Map.of("success", false, "message", e.getMessage()));
         } catch (IllegalArgumentException e) {
             // Captura errores de validación del servicio
-            ctx.status(400).json(Map.of("success", false, "message", e.getMessage()));
+            ContentNegotiator.send(ctx.status(400), Map.of("success", false, "message", e.getMessage()));
         }
     }
 
@@ -86,7 +415,70 @@ public class BookController {
             ctx.status(204); // 204 No Content para eliminación exitosa
         } catch (NoSuchElementException e) {
             // Captura errores de "no encontrado" si el servicio lanza la excepción
-            ctx.status(404).json(Map.of("success", false, "message", e.getMessage()));
+            ContentNegotiator.send(ctx.status(404), Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Indica si alguno de los ETags de If-None-Match coincide con el indicado (comparación débil, válida para GET).
+     */
+    private static boolean matchesIfNoneMatch(Context ctx, String etag) {
+        String ifNoneMatch = ctx.header(Header.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void notModified(Context ctx, String etag) {
+        // "no-cache" permite guardar la respuesta, pero obliga a revalidarla (con If-None-Match) en cada uso
+        ctx.header(Header.ETAG, etag).header(Header.CACHE_CONTROL, "no-cache");
+        ctx.status(304);
+    }
+
+    private static List<Integer> parseIds(String idsParam) {
+        List<Integer> ids = new ArrayList<>();
+        for (String id : idsParam.split(",")) {
+            if (id.isBlank()) {
+                continue;
+            }
+            try {
+                ids.add(Integer.parseInt(id.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("El parámetro 'ids' debe ser una lista de IDs separados por comas.");
+            }
+        }
+        return ids;
+    }
+
+    private static Long parseVersion(String versionParam) {
+        if (versionParam == null || versionParam.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(versionParam);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("La versión de cambios debe ser un número entero.");
+        }
+    }
+
+    private Integer parseLimit(String limitParam) {
+        if (limitParam == null || limitParam.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(limitParam);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El parámetro 'limit' debe ser un número entero.");
         }
     }
 }
\ No newline at end of file
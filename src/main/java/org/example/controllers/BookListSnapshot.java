@@ -0,0 +1,197 @@
+package org.example.controllers;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.models.Book;
+import org.example.models.BookCursor;
+import org.example.models.dtos.BookDTO;
+import org.example.services.BookChangeListener;
+import org.example.services.BookService;
+import org.example.services.CatalogVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Instantánea del listado de libros (GET /api/books con el tamaño de página por defecto) con las respuestas
+ * ya serializadas a JSON, en texto plano y comprimidas con gzip (y brotli, si su librería nativa está disponible).
+ * Cada página se guarda con la clave del cursor que la pide, así que el recorrido completo del catálogo
+ * que hace el frontend se sirve sin consultar la base de datos ni serializar nada por petición.
+ * <p>
+ * Tras cada cambio del catálogo se reconstruye en segundo plano, en un único hilo y con un pequeño retardo,
+ * de modo que una ráfaga de escrituras provoca una sola reconstrucción. Las lecturas nunca esperan:
+ * solo se usa la instantánea si corresponde a la versión actual del catálogo; si no, se responde por la vía normal.
+ */
+public class BookListSnapshot implements BookChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookListSnapshot.class);
+
+    /**
+     * Respuesta de una página ya codificada. {@code brotli} es null si brotli no está disponible.
+     */
+    public record EncodedPage(byte[] json, byte[] gzip, byte[] brotli) {}
+
+    private record Snapshot(long version, Map<String, EncodedPage> pages) {}
+
+    private static final String FIRST_PAGE = "";
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final int pageSize;
+    private final int maxBooks;
+    private final long rebuildDelayMs;
+    private final boolean brotliAvailable = Brotli4jLoader.isAvailable();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-list-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param pageSize El tamaño de página por defecto del listado.
+     * @param maxBooks El número máximo de libros que se guardan en la instantánea; con más, no se usa.
+     * @param rebuildDelayMs El retardo antes de reconstruir, durante el que se agrupan las escrituras.
+     */
+    public BookListSnapshot(BookService bookService, ObjectMapper objectMapper, CatalogVersion catalogVersion,
+                            int pageSize, int maxBooks, long rebuildDelayMs) {
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
+        this.pageSize = pageSize;
+        this.maxBooks = maxBooks;
+        this.rebuildDelayMs = rebuildDelayMs;
+    }
+
+    public boolean isBrotliAvailable() {
+        return brotliAvailable;
+    }
+
+    /**
+     * Devuelve la página ya codificada para el cursor indicado, o null si la instantánea no está
+     * disponible, no corresponde a la versión indicada o no contiene ese cursor.
+     * @param cursor El cursor recibido (null o vacío para la primera página).
+     * @param version La versión actual del catálogo.
+     */
+    public EncodedPage getPage(String cursor, long version) {
+        Snapshot current = snapshot;
+        if (current == null || current.version() != version) {
+            return null;
+        }
+        return current.pages().get(cursor == null || cursor.isBlank() ? FIRST_PAGE : cursor);
+    }
+
+    /**
+     * Programa una reconstrucción, salvo que ya haya una pendiente (que recogerá también este cambio).
+     */
+    public void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.schedule(this::rebuild, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void onBookCreated(Book book) {
+        scheduleRebuild();
+    }
+
+    @Override
+    public void onBookUpdated(Book book) {
+        scheduleRebuild();
+    }
+
+    @Override
+    public void onBookDeleted(int id) {
+        scheduleRebuild();
+    }
+
+    private void rebuild() {
+        // Los cambios que lleguen a partir de aquí programan una nueva reconstrucción
+        rebuildScheduled.set(false);
+        // La versión se lee antes de recorrer el catálogo: si hay escrituras durante el recorrido,
+        // la instantánea queda con una versión antigua y no se sirve
+        long version = catalogVersion.current();
+        SnapshotBuilder builder = new SnapshotBuilder();
+        try {
+            bookService.exportAllBooks(builder);
+            builder.finish();
+            snapshot = new Snapshot(version, builder.pages);
+        } catch (CatalogTooLargeException e) {
+            snapshot = null;
+        } catch (RuntimeException e) {
+            snapshot = null;
+            logger.error("Error al reconstruir la instantánea del listado de libros: {}", e.getMessage());
+        }
+    }
+
+    private EncodedPage encode(List<BookDTO> books, String nextCursor) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(BookController.listResponse(books, nextCursor));
+            byte[] brotli = brotliAvailable ? Encoder.compress(json, new Encoder.Parameters().setQuality(11)) : null;
+            return new EncodedPage(json, gzip(json), brotli);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo codificar la página del listado.", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 4 + 64);
+        // Se comprime una vez por reconstrucción, así que se usa el nivel máximo
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gzip.write(data);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Agrupa los libros (que llegan ordenados por título e ID, igual que el listado) en páginas,
+     * cada una guardada con el cursor que la solicita.
+     */
+    private class SnapshotBuilder implements Consumer<BookDTO> {
+        private final Map<String, EncodedPage> pages = new HashMap<>();
+        private final List<BookDTO> currentPage = new ArrayList<>(pageSize);
+        private String currentCursor = FIRST_PAGE;
+        private int totalBooks;
+
+        @Override
+        public void accept(BookDTO book) {
+            if (++totalBooks > maxBooks) {
+                throw new CatalogTooLargeException(); // Corta el recorrido del catálogo
+            }
+            if (currentPage.size() == pageSize) {
+                BookDTO last = currentPage.get(pageSize - 1);
+                String nextCursor = new BookCursor(last.title(), last.id()).encode();
+                pages.put(currentCursor, encode(currentPage, nextCursor));
+                currentCursor = nextCursor;
+                currentPage.clear();
+            }
+            currentPage.add(book);
+        }
+
+        void finish() {
+            pages.put(currentCursor, encode(currentPage, null));
+        }
+    }
+
+    private static class CatalogTooLargeException extends RuntimeException {
+        CatalogTooLargeException() {
+            super(null, null, false, false);
+        }
+    }
+}
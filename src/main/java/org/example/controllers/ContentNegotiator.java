@@ -0,0 +1,71 @@
+package org.example.controllers;
+
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import org.example.configs.WireFormat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * Negociación del formato de los cuerpos (JSON, Smile o CBOR) según Content-Type y Accept.
+ * El JsonMapper de Javalin 5 trabaja con String, así que los formatos binarios no pueden pasar por
+ * ctx.json() ni ctx.bodyAsClass(); los controladores usan estos métodos en su lugar.
+ * Con JSON se delega en Javalin, de modo que las respuestas JSON no cambian.
+ */
+final class ContentNegotiator {
+
+    private ContentNegotiator() {
+    }
+
+    /**
+     * Lee el cuerpo de la petición en el formato indicado por su Content-Type.
+     * @throws IllegalArgumentException si el cuerpo binario no es válido.
+     */
+    static <T> T readBody(Context ctx, Class<T> type) {
+        WireFormat format = WireFormat.fromContentType(ctx.contentType());
+        if (format == WireFormat.JSON) {
+            return ctx.bodyAsClass(type);
+        }
+        try {
+            return format.mapper().readValue(ctx.bodyInputStream(), type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("El cuerpo de la petición no es " + format.mediaType() + " válido.", e);
+        }
+    }
+
+    /**
+     * Envía el cuerpo de la respuesta en el formato que pide la cabecera Accept.
+     */
+    static void send(Context ctx, Object body) {
+        WireFormat format = responseFormat(ctx);
+        if (format == WireFormat.JSON) {
+            ctx.json(body);
+            return;
+        }
+        try {
+            ctx.contentType(format.mediaType()).result(format.mapper().writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al serializar la respuesta como " + format.mediaType() + ".", e);
+        }
+    }
+
+    /**
+     * Formato de la respuesta. Añade Vary: Accept, ya que la misma URL puede responderse en varios formatos.
+     */
+    static WireFormat responseFormat(Context ctx) {
+        ctx.header(Header.VARY, Header.ACCEPT);
+        return WireFormat.fromAccept(ctx.header(Header.ACCEPT));
+    }
+
+    /**
+     * ETag de la representación en el formato indicado: cada formato es una representación distinta del recurso.
+     */
+    static String variantTag(String etag, WireFormat format) {
+        if (format == WireFormat.JSON) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + format.name().toLowerCase(Locale.ROOT) + "\"";
+    }
+}
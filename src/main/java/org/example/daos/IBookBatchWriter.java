@@ -0,0 +1,29 @@
+package org.example.daos;
+
+import org.example.models.Book;
+import org.example.models.BookSaveResult;
+
+import java.util.List;
+
+/**
+ * Escritor por lotes de libros que mantiene abierta su conexión entre escrituras.
+ * Debe cerrarse al terminar para liberar la conexión.
+ */
+public interface IBookBatchWriter extends AutoCloseable {
+
+    /**
+     * Guarda los libros indicados, con una transacción por lote.
+     * Un error en un libro (por ejemplo, un ISBN duplicado) no impide guardar el resto.
+     * Si falla un lote por un error de base de datos, los lotes anteriores quedan guardados
+     * y los libros de ese lote y los siguientes se devuelven como fallidos.
+     * @param books Los libros a guardar (los guardados correctamente reciben su ID).
+     * @return El resultado de cada libro, en el mismo orden que la lista de entrada.
+     */
+    List<BookSaveResult> write(List<Book> books);
+
+    /**
+     * Cierra el escritor y su conexión.
+     */
+    @Override
+    void close();
+}
@@ -1,8 +1,14 @@
 package org.example.daos;
 
 import org.example.models.Book;
+import org.example.models.BookCursor;
+import org.example.models.BookField;
+import org.example.models.BookSaveResult;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Interfaz que define las operaciones de acceso a datos para la entidad Book.
@@ -16,6 +22,23 @@ public interface IBookDAO {
      */
     Book save(Book book);
 
+    /**
+     * Guarda varios libros usando lotes JDBC, con una transacción por lote.
+     * Un error en un libro (por ejemplo, un ISBN duplicado) no impide guardar el resto.
+     * Si falla un lote por un error de base de datos, los lotes anteriores quedan guardados
+     * y los libros de ese lote y los siguientes se devuelven como fallidos.
+     * @param books Los libros a guardar (los guardados correctamente reciben su ID).
+     * @return El resultado de cada libro, en el mismo orden que la lista de entrada.
+     */
+    List<BookSaveResult> saveAll(List<Book> books);
+
+    /**
+     * Abre un escritor por lotes sobre una conexión dedicada, fuera del pool de conexiones,
+     * pensado para importaciones largas que no deben ocupar conexiones del tráfico interactivo.
+     * @return Un escritor que debe cerrarse al terminar.
+     */
+    IBookBatchWriter openBatchWriter();
+
     /**
      * Busca un libro por su ID único.
      * @param id El ID del libro a buscar.
@@ -23,6 +46,22 @@ public interface IBookDAO {
      */
     Optional<Book> findById(int id);
 
+    /**
+     * Busca un libro por su ID leyendo solo las columnas de los campos indicados (más el ID).
+     * Los campos no solicitados quedan sin asignar en el Book devuelto.
+     * @param id El ID del libro a buscar.
+     * @param fields Los campos a leer.
+     * @return Un Optional con el Book (parcial) si se encuentra, o un Optional vacío si no.
+     */
+    Optional<Book> findById(int id, Set<BookField> fields);
+
+    /**
+     * Busca varios libros por su ID con una sola consulta (WHERE id IN (...)) en lugar de una por libro.
+     * @param ids Los IDs de los libros a buscar.
+     * @return Los libros encontrados, en cualquier orden; los IDs inexistentes se omiten.
+     */
+    List<Book> findAllByIds(Collection<Integer> ids);
+
     /**
      * Recupera todos los libros de la base de datos.
      * @return Una lista de todos los libros.
@@ -30,9 +69,34 @@ public interface IBookDAO {
     List<Book> findAll();
 
     /**
-     * Actualiza un libro existente en la base de datos.
+     * Recupera una página de libros ordenados por (title, id) usando paginación por cursor (keyset).
+     * El coste de cada página es constante, sin importar su profundidad.
+     * @param after El cursor de la última fila de la página anterior, o null para la primera página.
+     * @param limit El número máximo de libros a devolver.
+     * @return Una lista con, como máximo, {@code limit} libros posteriores al cursor.
+     */
+    List<Book> findPage(BookCursor after, int limit);
+
+    /**
+     * Igual que {@link #findPage(BookCursor, int)}, pero leyendo solo las columnas de los campos indicados
+     * (más el título y el ID, que forman el cursor de la página siguiente).
+     * @param fields Los campos a leer.
+     */
+    List<Book> findPage(BookCursor after, int limit, Set<BookField> fields);
+
+    /**
+     * Recorre todos los libros, ordenados por título, entregándolos uno a uno a medida que se leen
+     * de la base de datos, sin construir una lista intermedia.
+     * @param consumer La función que recibe cada libro leído.
+     */
+    void streamAll(Consumer<Book> consumer);
+
+    /**
+     * Actualiza un libro existente en la base de datos con una única sentencia.
      * @param book El objeto Book con los datos actualizados (debe contener un ID válido).
-     * @return Un Optional que contiene el Book actualizado si la operación fue exitosa, o un Optional vacío si no se encontró el libro.
+     * @return Un Optional que contiene el Book actualizado (con su nuevo updatedAt; createdAt no se vuelve a leer
+     *         y queda null salvo que una capa lo conozca en memoria, como la caché)
+     *         si la operación fue exitosa, o un Optional vacío si no se encontró el libro.
      */
     Optional<Book> update(Book book);
 
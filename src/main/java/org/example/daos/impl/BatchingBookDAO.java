@@ -0,0 +1,227 @@
+package org.example.daos.impl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.configs.DbConfig;
+import org.example.daos.IBookBatchWriter;
+import org.example.daos.IBookDAO;
+import org.example.exceptions.DataAccessException;
+import org.example.models.Book;
+import org.example.models.BookCursor;
+import org.example.models.BookField;
+import org.example.models.BookSaveResult;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Decorador de IBookDAO que agrupa las búsquedas por ID concurrentes de distintas peticiones (al estilo DataLoader).
+ * La primera búsqueda abre un lote y espera una ventana corta (o hasta reunir un número máximo de IDs);
+ * las que llegan mientras tanto se suman al lote, y todas se resuelven con una sola consulta findAllByIds().
+ * La consulta la ejecuta el hilo que abrió el lote, de modo que varios lotes pueden consultarse a la vez.
+ * <p>
+ * A cambio, cada búsqueda puede esperar hasta la ventana configurada: compensa con mucha concurrencia,
+ * cuando cada consulta individual ocupa una conexión del pool y un viaje de ida y vuelta a la base de datos.
+ * Las búsquedas que deben ir al primario forman lotes aparte. El resto de operaciones se delegan sin cambios.
+ */
+public class BatchingBookDAO implements IBookDAO {
+
+    private static final class Batch {
+        private final Map<Integer, CompletableFuture<Optional<Book>>> lookups = new LinkedHashMap<>();
+        private boolean closed; // Protegido por el lock del DAO
+    }
+
+    private final IBookDAO delegate;
+    private final long windowNanos;
+    private final int maxKeys;
+    private final DistributionSummary batchSizes;
+    private final Object lock = new Object();
+    private Batch openReplicaBatch; // Protegidos por lock
+    private Batch openPrimaryBatch;
+
+    /**
+     * @param delegate El DAO que realiza las consultas.
+     * @param windowMs El tiempo máximo que un lote espera a otras búsquedas antes de consultarse.
+     * @param maxKeys El número máximo de IDs por lote.
+     * @param registry El registro donde se publica el tamaño de los lotes consultados.
+     */
+    public BatchingBookDAO(IBookDAO delegate, long windowMs, int maxKeys, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxKeys = maxKeys;
+        this.batchSizes = DistributionSummary.builder("db.book.batched.lookup.size")
+                .description("Número de libros buscados por ID en cada consulta agrupada")
+                .register(registry);
+    }
+
+    @Override
+    public Optional<Book> findById(int id) {
+        boolean primary = DbConfig.isPrimaryReads();
+        CompletableFuture<Optional<Book>> result;
+        Batch ownBatch = null;
+        synchronized (lock) {
+            Batch batch = primary ? openPrimaryBatch : openReplicaBatch;
+            if (batch == null) {
+                batch = new Batch();
+                setOpenBatch(primary, batch);
+                ownBatch = batch;
+            }
+            result = batch.lookups.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (batch.lookups.size() >= maxKeys) {
+                close(batch, primary);
+            }
+        }
+        if (ownBatch != null) {
+            try {
+                awaitWindow(ownBatch, primary);
+            } finally {
+                load(ownBatch); // Siempre: las demás búsquedas del lote esperan a este hilo
+            }
+        }
+        // El mismo ID puede pedirse varias veces en un lote: cada llamada recibe su copia, porque Book es mutable
+        return await(result).map(Book::new);
+    }
+
+    /**
+     * Espera a que pase la ventana o a que el lote se llene, y cierra el lote para que no admita más búsquedas.
+     */
+    private void awaitWindow(Batch batch, boolean primary) {
+        long deadline = System.nanoTime() + windowNanos;
+        synchronized (lock) {
+            try {
+                long remaining;
+                while (!batch.closed && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // Se consulta ya lo reunido
+            } finally {
+                if (!batch.closed) {
+                    close(batch, primary);
+                }
+            }
+        }
+    }
+
+    private void close(Batch batch, boolean primary) {
+        batch.closed = true;
+        if ((primary ? openPrimaryBatch : openReplicaBatch) == batch) {
+            setOpenBatch(primary, null);
+        }
+        lock.notifyAll();
+    }
+
+    private void setOpenBatch(boolean primary, Batch batch) {
+        if (primary) {
+            openPrimaryBatch = batch;
+        } else {
+            openReplicaBatch = batch;
+        }
+    }
+
+    /**
+     * Consulta los IDs del lote, ya cerrado, y entrega a cada búsqueda su resultado.
+     * Se ejecuta en el hilo que abrió el lote, que conserva su elección de primario o réplica.
+     * Cualquier fallo (también un Error) se entrega a todas las búsquedas: si alguna quedara sin completar,
+     * su hilo esperaría indefinidamente.
+     */
+    private void load(Batch batch) {
+        Map<Integer, CompletableFuture<Optional<Book>>> lookups = batch.lookups;
+        batchSizes.record(lookups.size());
+        try {
+            if (lookups.size() == 1) {
+                Map.Entry<Integer, CompletableFuture<Optional<Book>>> lookup = lookups.entrySet().iterator().next();
+                lookup.getValue().complete(delegate.findById(lookup.getKey()));
+                return;
+            }
+            Map<Integer, Book> found = new HashMap<>();
+            for (Book book : delegate.findAllByIds(lookups.keySet())) {
+                found.put(book.getId(), book);
+            }
+            lookups.forEach((id, result) -> result.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException e) {
+            lookups.values().forEach(result -> result.completeExceptionally(e));
+        } catch (Error e) {
+            lookups.values().forEach(result -> result.completeExceptionally(e));
+            throw e;
+        }
+    }
+
+    private static Optional<Book> await(CompletableFuture<Optional<Book>> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DataAccessException("Error de base de datos al buscar el libro por ID.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Se interrumpió la espera de la búsqueda del libro.", e);
+        }
+    }
+
+    @Override
+    public Book save(Book book) {
+        return delegate.save(book);
+    }
+
+    @Override
+    public List<BookSaveResult> saveAll(List<Book> books) {
+        return delegate.saveAll(books);
+    }
+
+    @Override
+    public IBookBatchWriter openBatchWriter() {
+        return delegate.openBatchWriter();
+    }
+
+    @Override
+    public Optional<Book> findById(int id, Set<BookField> fields) {
+        return delegate.findById(id, fields);
+    }
+
+    @Override
+    public List<Book> findAllByIds(Collection<Integer> ids) {
+        return delegate.findAllByIds(ids);
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit) {
+        return delegate.findPage(after, limit);
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit, Set<BookField> fields) {
+        return delegate.findPage(after, limit, fields);
+    }
+
+    @Override
+    public void streamAll(Consumer<Book> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    @Override
+    public Optional<Book> update(Book book) {
+        return delegate.update(book);
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        return delegate.deleteById(id);
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.daos.impl;
+
+import org.example.configs.AppConfig;
+import org.example.daos.IBookBatchWriter;
+import org.example.models.Book;
+import org.example.models.BookSaveResult;
+import org.intellij.lang.annotations.Language;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementación JDBC de IBookBatchWriter sobre una conexión ya abierta (del pool o dedicada).
+ * Cada lote se envía con addBatch/executeBatch (reescrito como INSERT de múltiples filas por el driver)
+ * dentro de su propia transacción.
+ */
+public class BookBatchWriter implements IBookBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookBatchWriter.class);
+
+    @Language("MySQL")
+    private static final String INSERT_SQL = "INSERT INTO books (title, author, publication_year, isbn, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final Connection conn;
+    private final int batchSize;
+
+    public BookBatchWriter(Connection conn) throws SQLException {
+        this.conn = conn;
+        this.batchSize = AppConfig.getDbBatchSize();
+        conn.setAutoCommit(false);
+    }
+
+    /**
+     * Guarda los libros por lotes. Cada lote se confirma por separado, así que si uno falla por un error
+     * de base de datos (no de un libro concreto) no se lanza una excepción que ocultaría los ya confirmados:
+     * se devuelven sus resultados y el resto de libros se marcan como fallidos.
+     */
+    @Override
+    public List<BookSaveResult> write(List<Book> books) {
+        List<BookSaveResult> results = new ArrayList<>(books.size());
+        for (int from = 0; from < books.size(); from += batchSize) {
+            List<Book> chunk = books.subList(from, Math.min(from + batchSize, books.size()));
+            try {
+                results.addAll(saveChunk(chunk));
+            } catch (SQLException e) {
+                logger.error("Error SQL al guardar el lote de libros (procesados {} de {}): {}",
+                        from, books.size(), e.getMessage());
+                for (Book book : books.subList(from, books.size())) {
+                    results.add(BookSaveResult.failed(book, "Error de base de datos al guardar el libro."));
+                }
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Guarda un lote de libros en una transacción. Primero intenta un único executeBatch;
+     * si falla por algún libro, deshace el lote y lo reintenta fila a fila para aislar los errores de cada libro.
+     */
+    private List<BookSaveResult> saveChunk(List<Book> chunk) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Book book : chunk) {
+                setInsertParameters(pstmt, book);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+
+            List<BookSaveResult> results = new ArrayList<>(chunk.size());
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                for (Book book : chunk) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("La creación del lote falló, no se obtuvieron todos los IDs.");
+                    }
+                    book.setId(generatedKeys.getInt(1));
+                    results.add(BookSaveResult.saved(book));
+                }
+            }
+            conn.commit();
+            return results;
+        } catch (BatchUpdateException e) {
+            conn.rollback();
+            return saveChunkRowByRow(chunk);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    private List<BookSaveResult> saveChunkRowByRow(List<Book> chunk) throws SQLException {
+        List<BookSaveResult> results = new ArrayList<>(chunk.size());
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Book book : chunk) {
+                setInsertParameters(pstmt, book);
+                try {
+                    pstmt.executeUpdate();
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    // En InnoDB solo se deshace la sentencia fallida; la transacción del lote sigue activa
+                    results.add(e.getErrorCode() == 1062
+                            ? BookSaveResult.duplicate(book)
+                            : BookSaveResult.failed(book, "Error de integridad en la base de datos al guardar el libro."));
+                    continue;
+                }
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("La creación del libro falló, no se obtuvo ID.");
+                    }
+                    book.setId(generatedKeys.getInt(1));
+                }
+                results.add(BookSaveResult.saved(book));
+            }
+            conn.commit();
+            return results;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Fija los parámetros del INSERT. Las fechas se asignan desde la aplicación (como en BookDAO.save)
+     * para que el libro guardado se devuelva y se publique completo sin releerlo.
+     */
+    private void setInsertParameters(PreparedStatement pstmt, Book book) throws SQLException {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        book.setCreatedAt(now);
+        book.setUpdatedAt(now);
+        pstmt.setString(1, book.getTitle());
+        pstmt.setString(2, book.getAuthor());
+        pstmt.setInt(3, book.getPublicationYear());
+        pstmt.setString(4, book.getIsbn());
+        pstmt.setTimestamp(5, Timestamp.valueOf(now));
+        pstmt.setTimestamp(6, Timestamp.valueOf(now));
+    }
+
+    @Override
+    public void close() {
+        try {
+            conn.setAutoCommit(true);
+            conn.close();
+        } catch (SQLException e) {
+            logger.warn("Error al cerrar la conexión de escritura por lotes: {}", e.getMessage());
+        }
+    }
+}
@@ -1,22 +1,44 @@
 package org.example.daos.impl;
 
+import org.example.configs.AppConfig;
 import org.example.configs.DbConfig;
+import org.example.daos.IBookBatchWriter;
 import org.example.daos.IBookDAO;
 import org.example.exceptions.DataAccessException;
 import org.example.models.Book;
+import org.example.models.BookCursor;
+import org.example.models.BookField;
+import org.example.models.BookSaveResult;
 import org.intellij.lang.annotations.Language;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class BookDAO implements IBookDAO {
 
+    private static final Logger logger = LoggerFactory.getLogger(BookDAO.class);
+
+    /**
+     * Número máximo de IDs por consulta IN; las listas más largas se consultan por tramos con la misma conexión.
+     */
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
     @Override
     public Book save(Book book) {
         @Language("MySQL")
-        String sql = "INSERT INTO books (title, author, publication_year, isbn) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO books (title, author, publication_year, isbn, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+        // Las fechas se fijan desde la aplicación (como en update) para devolver el libro completo sin releerlo
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         try (Connection conn = DbConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
@@ -24,11 +46,15 @@ public class BookDAO implements IBookDAO {
             pstmt.setString(2, book.getAuthor());
             pstmt.setInt(3, book.getPublicationYear());
             pstmt.setString(4, book.getIsbn());
+            pstmt.setTimestamp(5, Timestamp.valueOf(now));
+            pstmt.setTimestamp(6, Timestamp.valueOf(now));
             pstmt.executeUpdate();
 
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     book.setId(generatedKeys.getInt(1));
+                    book.setCreatedAt(now);
+                    book.setUpdatedAt(now);
                 } else {
                     throw new SQLException("La creación del libro falló, no se obtuvo ID.");
                 }
@@ -37,59 +63,183 @@ public class BookDAO implements IBookDAO {
         } catch (SQLIntegrityConstraintViolationException e) { // <-- Captura específica de duplicados
             // MySQL lanza esta si hay una restricción UNIQUE o PRIMARY KEY violada (código 1062 para 'Duplicate entry')
             if (e.getErrorCode() == 1062) { 
-                System.err.println("Error de duplicado en DB (ISBN): " + e.getMessage());
+                logger.warn("Error de duplicado en DB (ISBN): {}", e.getMessage());
                 throw new DataAccessException("Clave duplicada: El ISBN ya existe.", e); // Lanzar DataAccessException
             }
             // Si no es un duplicado, relanzar como DataAccessException genérico
-            System.err.println("Error de integridad de BD al guardar el libro: " + e.getMessage());
+            logger.error("Error de integridad de BD al guardar el libro: {}", e.getMessage());
             throw new DataAccessException("Error de integridad en la base de datos al guardar el libro.", e);
         } catch (SQLException e) { // <-- Captura otras excepciones SQL
-            System.err.println("Error SQL al guardar el libro: " + e.getMessage());
+            logger.error("Error SQL al guardar el libro: {}", e.getMessage());
             throw new DataAccessException("Error de base de datos al guardar el libro.", e); // Relanzar como DataAccessException
         }
     }
 
+    @Override
+    public List<BookSaveResult> saveAll(List<Book> books) {
+        // Una sola conexión del pool para toda la operación, con una transacción por lote
+        try (BookBatchWriter writer = new BookBatchWriter(DbConfig.getConnection())) {
+            return writer.write(books);
+        } catch (SQLException e) {
+            logger.error("Error SQL al guardar el lote de libros: {}", e.getMessage());
+            throw new DataAccessException("Error de base de datos al guardar el lote de libros.", e);
+        }
+    }
+
+    @Override
+    public IBookBatchWriter openBatchWriter() {
+        try {
+            return new BookBatchWriter(DbConfig.openDedicatedConnection());
+        } catch (SQLException e) {
+            logger.error("Error SQL al abrir la conexión de escritura por lotes: {}", e.getMessage());
+            throw new DataAccessException("Error de base de datos al abrir la conexión de escritura por lotes.", e);
+        }
+    }
+
     @Override
     public Optional<Book> findById(int id) {
+        return findById(id, BookField.ALL);
+    }
+
+    @Override
+    public Optional<Book> findById(int id, Set<BookField> fields) {
+        Set<BookField> columns = BookField.withRequired(fields, BookField.ID);
+        // Las columnas salen de la lista blanca de BookField, nunca directamente de la petición
         @Language("MySQL")
-        String sql = "SELECT * FROM books WHERE id = ?";
-        try (Connection conn = DbConfig.getConnection();
+        String sql = "SELECT " + BookField.toColumnList(columns) + " FROM books WHERE id = ?";
+        try (Connection conn = DbConfig.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapRowToBook(rs));
+                    return Optional.of(mapRowToBook(rs, columns));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error al buscar libro por ID: " + e.getMessage());
+            logger.error("Error al buscar libro por ID: {}", e.getMessage());
             throw new DataAccessException("Error de base de datos al buscar el libro por ID.", e); // Usar DataAccessException
         }
         return Optional.empty();
     }
 
+    @Override
+    public List<Book> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> idList = List.copyOf(ids);
+        List<Book> books = new ArrayList<>(idList.size());
+        try (Connection conn = DbConfig.getReadConnection()) {
+            for (int from = 0; from < idList.size(); from += MAX_IDS_PER_QUERY) {
+                List<Integer> chunk = idList.subList(from, Math.min(from + MAX_IDS_PER_QUERY, idList.size()));
+                @Language("MySQL")
+                String sql = "SELECT * FROM books WHERE id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            books.add(mapRowToBook(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al buscar libros por ID: {}", e.getMessage());
+            throw new DataAccessException("Error de base de datos al buscar los libros por ID.", e);
+        }
+        return books;
+    }
+
     @Override
     public List<Book> findAll() {
         List<Book> books = new ArrayList<>();
         @Language("MySQL")
         String sql = "SELECT * FROM books ORDER BY title ASC";
-        try (Connection conn = DbConfig.getConnection();
+        try (Connection conn = DbConfig.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 books.add(mapRowToBook(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Error al buscar todos los libros: " + e.getMessage());
+            logger.error("Error al buscar todos los libros: {}", e.getMessage());
             throw new DataAccessException("Error de base de datos al buscar todos los libros.", e); // Usar DataAccessException
         }
         return books;
     }
 
+    @Override
+    public List<Book> findPage(BookCursor after, int limit) {
+        return findPage(after, limit, BookField.ALL);
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit, Set<BookField> fields) {
+        List<Book> books = new ArrayList<>(limit);
+        Set<BookField> columns = BookField.withRequired(fields, BookField.ID, BookField.TITLE);
+        String columnList = BookField.toColumnList(columns);
+        // La condición expandida (en lugar de "(title, id) > (?, ?)") permite a MySQL usar el índice idx_books_title_id
+        @Language("MySQL")
+        String sql = after == null
+                ? "SELECT " + columnList + " FROM books ORDER BY title ASC, id ASC LIMIT ?"
+                : "SELECT " + columnList + " FROM books WHERE title > ? OR (title = ? AND id > ?) ORDER BY title ASC, id ASC LIMIT ?";
+        try (Connection conn = DbConfig.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (after != null) {
+                pstmt.setString(index++, after.title());
+                pstmt.setString(index++, after.title());
+                pstmt.setInt(index++, after.id());
+            }
+            pstmt.setInt(index, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    books.add(mapRowToBook(rs, columns));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al buscar la página de libros: {}", e.getMessage());
+            throw new DataAccessException("Error de base de datos al buscar la página de libros.", e);
+        }
+        return books;
+    }
+
+    @Override
+    public void streamAll(Consumer<Book> consumer) {
+        @Language("MySQL")
+        String sql = "SELECT * FROM books ORDER BY title ASC, id ASC";
+        // Siempre del primario: con este recorrido se construyen el índice de búsqueda y la instantánea del listado,
+        // que se etiquetan con la versión actual del catálogo y no pueden venir de una réplica retrasada
+        try (Connection conn = DbConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // El resultado se lee por partes en lugar de cargarlo completo en memoria. Con MySQL se usa el streaming
+            // fila a fila de Connector/J (fetch size Integer.MIN_VALUE) solo en esta sentencia, en lugar de activar
+            // useCursorFetch en todo el pool, que convertiría todas las sentencias en preparadas del servidor
+            pstmt.setFetchSize(isMySql(conn) ? Integer.MIN_VALUE : AppConfig.getDbExportFetchSize());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapRowToBook(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al recorrer todos los libros: {}", e.getMessage());
+            throw new DataAccessException("Error de base de datos al recorrer todos los libros.", e);
+        }
+    }
+
+    private static boolean isMySql(Connection conn) throws SQLException {
+        return "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+    }
+
     @Override
     public Optional<Book> update(Book book) {
         @Language("MySQL")
-        String sql = "UPDATE books SET title = ?, author = ?, publication_year = ?, isbn = ? WHERE id = ?";
+        String sql = "UPDATE books SET title = ?, author = ?, publication_year = ?, isbn = ?, updated_at = ? WHERE id = ?";
+        // updated_at se fija desde la aplicación para devolverlo sin una consulta adicional
+        // (TIMESTAMP de MySQL guarda segundos, así que se trunca para coincidir con lo almacenado)
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         try (Connection conn = DbConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -97,15 +247,25 @@ public class BookDAO implements IBookDAO {
             pstmt.setString(2, book.getAuthor());
             pstmt.setInt(3, book.getPublicationYear());
             pstmt.setString(4, book.getIsbn());
-            pstmt.setInt(5, book.getId());
+            pstmt.setTimestamp(5, Timestamp.valueOf(updatedAt));
+            pstmt.setInt(6, book.getId());
 
+            // Connector/J devuelve las filas encontradas (useAffectedRows=false), así que un UPDATE
+            // sin cambios reales también cuenta como existente
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows > 0) {
-                // Para asegurar que los timestamps de updated_at estén actualizados
-                return findById(book.getId());
+                book.setUpdatedAt(updatedAt);
+                return Optional.of(book);
+            }
+        } catch (SQLIntegrityConstraintViolationException e) {
+            if (e.getErrorCode() == 1062) {
+                logger.warn("Error de duplicado en DB (ISBN): {}", e.getMessage());
+                throw new DataAccessException("Clave duplicada: El ISBN ya existe.", e);
             }
+            logger.error("Error de integridad de BD al actualizar el libro: {}", e.getMessage());
+            throw new DataAccessException("Error de integridad en la base de datos al actualizar el libro.", e);
         } catch (SQLException e) {
-            System.err.println("Error al actualizar el libro: " + e.getMessage());
+            logger.error("Error al actualizar el libro: {}", e.getMessage());
             throw new DataAccessException("Error de base de datos al actualizar el libro.", e); // Usar DataAccessException
         }
         return Optional.empty();
@@ -122,12 +282,13 @@ public class BookDAO implements IBookDAO {
             int affectedRows = pstmt.executeUpdate();
             return affectedRows > 0; // True si se eliminó al menos una fila
         } catch (SQLException e) {
-            System.err.println("Error al eliminar el libro: " + e.getMessage());
+            logger.error("Error al eliminar el libro: {}", e.getMessage());
             throw new DataAccessException("Error de base de datos al eliminar el libro.", e); // Usar DataAccessException
         }
     }
         
-    private Book mapRowToBook(ResultSet rs) throws SQLException {
+    // Visible en el paquete para poder medirlo con JMH (BookRowMappingBenchmark)
+    Book mapRowToBook(ResultSet rs) throws SQLException {
         Book book = new Book();
         book.setId(rs.getInt("id"));
         book.setTitle(rs.getString("title"));
@@ -138,4 +299,26 @@ public class BookDAO implements IBookDAO {
         book.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
         return book;
     }
+
+    /**
+     * Construye un Book leyendo solo las columnas de los campos indicados (las que trae la consulta).
+     */
+    Book mapRowToBook(ResultSet rs, Set<BookField> fields) throws SQLException {
+        if (fields.size() == BookField.ALL.size()) {
+            return mapRowToBook(rs);
+        }
+        Book book = new Book();
+        for (BookField field : fields) {
+            switch (field) {
+                case ID -> book.setId(rs.getInt("id"));
+                case TITLE -> book.setTitle(rs.getString("title"));
+                case AUTHOR -> book.setAuthor(rs.getString("author"));
+                case PUBLICATION_YEAR -> book.setPublicationYear(rs.getInt("publication_year"));
+                case ISBN -> book.setIsbn(rs.getString("isbn"));
+                case CREATED_AT -> book.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                case UPDATED_AT -> book.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            }
+        }
+        return book;
+    }
 }
\ No newline at end of file
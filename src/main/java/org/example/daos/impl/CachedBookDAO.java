@@ -0,0 +1,220 @@
+package org.example.daos.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.example.configs.DbConfig;
+import org.example.daos.IBookBatchWriter;
+import org.example.daos.IBookDAO;
+import org.example.models.Book;
+import org.example.models.BookCursor;
+import org.example.models.BookField;
+import org.example.models.BookSaveResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Decorador de IBookDAO que añade una caché de lectura (read-through) para las búsquedas por ID.
+ * Usa Caffeine, con tamaño acotado y desalojo W-TinyLFU, un TTL para los libros encontrados
+ * y otro (normalmente más corto) para los IDs inexistentes (caché negativa).
+ * Las escrituras que pasan por este DAO invalidan o refrescan la entrada afectada.
+ */
+public class CachedBookDAO implements IBookDAO {
+
+    private final IBookDAO delegate;
+    private final Cache<Integer, Optional<Book>> cache;
+
+    public CachedBookDAO(IBookDAO delegate, long maximumSize, Duration ttl, Duration negativeTtl) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Integer, Optional<Book>>() {
+                    @Override
+                    public long expireAfterCreate(Integer id, Optional<Book> book, long currentTime) {
+                        return book.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Integer id, Optional<Book> book, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, book, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Integer id, Optional<Book> book, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Book save(Book book) {
+        Book savedBook = delegate.save(book);
+        // El libro guardado ya trae sus timestamps (los fija la aplicación, al segundo, igual que los guarda la BD),
+        // así que se cachea una copia; también sustituye una posible entrada negativa para ese ID
+        if (savedBook.getCreatedAt() != null) {
+            cache.put(savedBook.getId(), Optional.of(new Book(savedBook)));
+        } else {
+            cache.invalidate(savedBook.getId()); // No se guardan entidades incompletas
+        }
+        return savedBook;
+    }
+
+    @Override
+    public List<BookSaveResult> saveAll(List<Book> books) {
+        List<BookSaveResult> results = delegate.saveAll(books);
+        invalidateSaved(results);
+        return results;
+    }
+
+    @Override
+    public IBookBatchWriter openBatchWriter() {
+        IBookBatchWriter writer = delegate.openBatchWriter();
+        return new IBookBatchWriter() {
+            @Override
+            public List<BookSaveResult> write(List<Book> books) {
+                List<BookSaveResult> results = writer.write(books);
+                invalidateSaved(results);
+                return results;
+            }
+
+            @Override
+            public void close() {
+                writer.close();
+            }
+        };
+    }
+
+    @Override
+    public Optional<Book> findById(int id) {
+        // Caffeine bloquea por clave durante la carga, así que los fallos concurrentes del mismo ID hacen una sola consulta.
+        // La carga se hace del primario para no guardar en caché datos de una réplica retrasada
+        Optional<Book> cached = cache.get(id, key -> DbConfig.readFromPrimary(() -> delegate.findById(key)));
+        // Se devuelven copias porque Book es mutable y los servicios modifican las entidades que reciben
+        return cached.map(Book::new);
+    }
+
+    @Override
+    public Optional<Book> findById(int id, Set<BookField> fields) {
+        // Si el libro completo ya está en caché se usa; si no, se hace la consulta parcial (que no se guarda)
+        Optional<Book> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.map(Book::new);
+        }
+        return delegate.findById(id, fields);
+    }
+
+    @Override
+    public List<Book> findAllByIds(Collection<Integer> ids) {
+        // Los IDs que no están en caché se cargan juntos con una sola consulta (también del primario);
+        // los inexistentes quedan en la caché negativa
+        Map<Integer, Optional<Book>> cached = cache.getAll(ids, missing -> {
+            Map<Integer, Optional<Book>> loaded = new HashMap<>();
+            for (Integer id : missing) {
+                loaded.put(id, Optional.empty());
+            }
+            for (Book book : DbConfig.readFromPrimary(() -> delegate.findAllByIds(List.copyOf(missing)))) {
+                loaded.put(book.getId(), Optional.of(book));
+            }
+            return loaded;
+        });
+        List<Book> books = new ArrayList<>(cached.size());
+        for (Optional<Book> book : cached.values()) {
+            book.map(Book::new).ifPresent(books::add);
+        }
+        return books;
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit) {
+        return delegate.findPage(after, limit);
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit, Set<BookField> fields) {
+        return delegate.findPage(after, limit, fields);
+    }
+
+    @Override
+    public void streamAll(Consumer<Book> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    @Override
+    public Optional<Book> update(Book book) {
+        Optional<Book> previous = cache.getIfPresent(book.getId());
+        Optional<Book> updatedBook;
+        try {
+            updatedBook = delegate.update(book);
+        } catch (RuntimeException e) {
+            cache.invalidate(book.getId());
+            throw e;
+        }
+
+        // El UPDATE no vuelve a leer createdAt; si el libro estaba en caché se completa con el valor conocido
+        if (updatedBook.isPresent() && updatedBook.get().getCreatedAt() == null
+                && previous != null && previous.isPresent()) {
+            updatedBook.get().setCreatedAt(previous.get().getCreatedAt());
+        }
+        if (updatedBook.isEmpty()) {
+            cache.put(book.getId(), Optional.empty());
+        } else if (updatedBook.get().getCreatedAt() != null) {
+            cache.put(book.getId(), updatedBook.map(Book::new));
+        } else {
+            cache.invalidate(book.getId()); // No se guardan entidades incompletas
+        }
+        return updatedBook;
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        boolean deleted = delegate.deleteById(id);
+        if (deleted) {
+            cache.put(id, Optional.empty());
+        } else {
+            cache.invalidate(id);
+        }
+        return deleted;
+    }
+
+    /**
+     * En las altas masivas solo se descartan las posibles entradas negativas: cachear cada libro importado
+     * desplazaría de la caché los libros que sí se están leyendo.
+     */
+    private void invalidateSaved(List<BookSaveResult> results) {
+        for (BookSaveResult result : results) {
+            if (result.isSaved()) {
+                cache.invalidate(result.book().getId());
+            }
+        }
+    }
+
+    /**
+     * Devuelve los contadores acumulados de la caché (aciertos, fallos, desalojos, etc.).
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Devuelve el número aproximado de entradas en la caché.
+     */
+    public long getEstimatedSize() {
+        return cache.estimatedSize();
+    }
+}
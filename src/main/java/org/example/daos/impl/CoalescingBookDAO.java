@@ -0,0 +1,263 @@
+package org.example.daos.impl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.daos.IBookBatchWriter;
+import org.example.daos.IBookDAO;
+import org.example.exceptions.DataAccessException;
+import org.example.exceptions.ServiceOverloadedException;
+import org.example.models.Book;
+import org.example.models.BookCursor;
+import org.example.models.BookField;
+import org.example.models.BookSaveResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Decorador de IBookDAO que agrupa las altas concurrentes (group commit).
+ * Cada save() se encola y espera; un único hilo recoge las altas pendientes durante una ventana corta
+ * (o hasta reunir un número máximo de filas) y las guarda con un solo saveAll(), es decir, un INSERT
+ * de múltiples filas en una transacción en lugar de un commit por libro.
+ * Cada llamada recibe su propio resultado: su ID generado o su propio error (por ejemplo, un ISBN duplicado),
+ * ya que saveAll() aísla los errores de cada libro. El resto de operaciones se delegan sin cambios.
+ */
+public class CoalescingBookDAO implements IBookDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingBookDAO.class);
+
+    private record PendingSave(Book book, CompletableFuture<Book> result) {}
+
+    private static final long IDLE_POLL_MS = 100;
+
+    private final IBookDAO delegate;
+    private final BlockingQueue<PendingSave> queue;
+    private final long windowNanos;
+    private final int maxRows;
+    private final DistributionSummary batchSizes;
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    /**
+     * @param delegate El DAO que realiza las escrituras.
+     * @param windowMs El tiempo máximo que se espera a otras altas antes de escribir un grupo.
+     * @param maxRows El número máximo de libros por grupo.
+     * @param maxPending El número máximo de altas en espera; por encima se rechazan las nuevas.
+     * @param registry El registro donde se publica el tamaño de los grupos escritos.
+     */
+    public CoalescingBookDAO(IBookDAO delegate, long windowMs, int maxRows, int maxPending, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxRows = maxRows;
+        this.batchSizes = DistributionSummary.builder("db.book.coalesced.batch.size")
+                .description("Número de altas de libros escritas en cada grupo")
+                .register(registry);
+        this.flusher = new Thread(this::runFlusher, "book-write-coalescer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public Book save(Book book) {
+        if (closed) {
+            return delegate.save(book);
+        }
+        PendingSave pending = new PendingSave(book, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new ServiceOverloadedException("Hay demasiadas altas de libros pendientes. Inténtelo más tarde.", 1);
+        }
+        // Si se cerró mientras tanto y el escritor no llegó a recogerla, se guarda directamente
+        if (closed && queue.remove(pending)) {
+            return delegate.save(book);
+        }
+        return await(pending);
+    }
+
+    /**
+     * Espera el resultado del alta. La espera se reparte en intervalos cortos para comprobar que el hilo
+     * escritor siga vivo: si hubiera terminado, el alta se guarda directamente en lugar de esperar para siempre.
+     */
+    private Book await(PendingSave pending) {
+        try {
+            while (true) {
+                try {
+                    return pending.result().get(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (!flusher.isAlive() && queue.remove(pending)) {
+                        return delegate.save(pending.book());
+                    }
+                    if (!flusher.isAlive() && !pending.result().isDone()) {
+                        throw new DataAccessException("El escritor de altas agrupadas terminó sin guardar el libro.", null);
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DataAccessException("Error de base de datos al guardar el libro.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Se interrumpió la espera del guardado del libro.", e);
+        }
+    }
+
+    private void runFlusher() {
+        List<PendingSave> batch = new ArrayList<>(maxRows);
+        try {
+            while (!closed) {
+                PendingSave first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                try {
+                    collect(batch);
+                    flush(batch);
+                } catch (RuntimeException | Error e) {
+                    // El hilo sigue vivo para las altas siguientes; las de este grupo reciben el error
+                    logger.error("Error inesperado al escribir un grupo de altas de libros", e);
+                    fail(batch, e);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Al cerrar se escriben las altas que quedaron en cola
+        while (queue.drainTo(batch, maxRows) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Añade al grupo las altas que lleguen hasta completar maxRows o agotar la ventana de espera.
+     */
+    private void collect(List<PendingSave> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxRows) {
+            if (queue.drainTo(batch, maxRows - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingSave next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingSave> batch) {
+        List<Book> books = new ArrayList<>(batch.size());
+        for (PendingSave pending : batch) {
+            books.add(pending.book());
+        }
+        batchSizes.record(books.size());
+
+        try {
+            List<BookSaveResult> results = delegate.saveAll(books);
+            for (int i = 0; i < batch.size(); i++) {
+                BookSaveResult result = results.get(i);
+                CompletableFuture<Book> future = batch.get(i).result();
+                if (result.isSaved()) {
+                    future.complete(result.book());
+                } else {
+                    // Mismo mensaje que BookDAO.save, para que el servicio lo traduzca igual (p. ej. a DuplicateIsbnException)
+                    future.completeExceptionally(new DataAccessException(result.errorMessage(), null));
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            // Cualquier fallo (también un Error) llega a todas las altas del grupo que no tengan ya resultado
+            fail(batch, e);
+        }
+    }
+
+    private static void fail(List<PendingSave> batch, Throwable error) {
+        batch.forEach(pending -> pending.result().completeExceptionally(error));
+    }
+
+    /**
+     * Deja de agrupar altas y espera a que se escriban las que estaban en cola.
+     */
+    public void close() {
+        closed = true;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public List<BookSaveResult> saveAll(List<Book> books) {
+        return delegate.saveAll(books);
+    }
+
+    @Override
+    public IBookBatchWriter openBatchWriter() {
+        return delegate.openBatchWriter();
+    }
+
+    @Override
+    public Optional<Book> findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<Book> findById(int id, Set<BookField> fields) {
+        return delegate.findById(id, fields);
+    }
+
+    @Override
+    public List<Book> findAllByIds(Collection<Integer> ids) {
+        return delegate.findAllByIds(ids);
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit) {
+        return delegate.findPage(after, limit);
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit, Set<BookField> fields) {
+        return delegate.findPage(after, limit, fields);
+    }
+
+    @Override
+    public void streamAll(Consumer<Book> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    @Override
+    public Optional<Book> update(Book book) {
+        return delegate.update(book);
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        return delegate.deleteById(id);
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.daos.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.daos.IBookBatchWriter;
+import org.example.daos.IBookDAO;
+import org.example.models.Book;
+import org.example.models.BookCursor;
+import org.example.models.BookField;
+import org.example.models.BookSaveResult;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Decorador de IBookDAO que mide la duración de cada operación de acceso a datos (db.book.dao, etiquetada por método).
+ * Los Timer se crean una sola vez en el constructor para que la medición no busque ni cree medidores en cada llamada.
+ */
+public class MeteredBookDAO implements IBookDAO {
+
+    private final IBookDAO delegate;
+    private final Timer saveTimer;
+    private final Timer saveAllTimer;
+    private final Timer batchWriteTimer;
+    private final Timer findByIdTimer;
+    private final Timer findAllByIdsTimer;
+    private final Timer findAllTimer;
+    private final Timer findPageTimer;
+    private final Timer streamAllTimer;
+    private final Timer updateTimer;
+    private final Timer deleteByIdTimer;
+
+    public MeteredBookDAO(IBookDAO delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.saveTimer = timer(registry, "save");
+        this.saveAllTimer = timer(registry, "saveAll");
+        this.batchWriteTimer = timer(registry, "batchWrite");
+        this.findByIdTimer = timer(registry, "findById");
+        this.findAllByIdsTimer = timer(registry, "findAllByIds");
+        this.findAllTimer = timer(registry, "findAll");
+        this.findPageTimer = timer(registry, "findPage");
+        this.streamAllTimer = timer(registry, "streamAll");
+        this.updateTimer = timer(registry, "update");
+        this.deleteByIdTimer = timer(registry, "deleteById");
+    }
+
+    private static Timer timer(MeterRegistry registry, String method) {
+        return Timer.builder("db.book.dao")
+                .description("Duración de las operaciones del DAO de libros")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    @Override
+    public Book save(Book book) {
+        long start = System.nanoTime();
+        try {
+            return delegate.save(book);
+        } finally {
+            saveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<BookSaveResult> saveAll(List<Book> books) {
+        long start = System.nanoTime();
+        try {
+            return delegate.saveAll(books);
+        } finally {
+            saveAllTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public IBookBatchWriter openBatchWriter() {
+        IBookBatchWriter writer = delegate.openBatchWriter();
+        return new IBookBatchWriter() {
+            @Override
+            public List<BookSaveResult> write(List<Book> books) {
+                long start = System.nanoTime();
+                try {
+                    return writer.write(books);
+                } finally {
+                    batchWriteTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public void close() {
+                writer.close();
+            }
+        };
+    }
+
+    @Override
+    public Optional<Book> findById(int id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findById(id);
+        } finally {
+            findByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<Book> findById(int id, Set<BookField> fields) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findById(id, fields);
+        } finally {
+            findByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<Book> findAllByIds(Collection<Integer> ids) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findAllByIds(ids);
+        } finally {
+            findAllByIdsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<Book> findAll() {
+        long start = System.nanoTime();
+        try {
+            return delegate.findAll();
+        } finally {
+            findAllTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findPage(after, limit);
+        } finally {
+            findPageTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit, Set<BookField> fields) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findPage(after, limit, fields);
+        } finally {
+            findPageTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void streamAll(Consumer<Book> consumer) {
+        // Incluye el tiempo del consumidor (escritura de la respuesta), que es el que mantiene abierto el cursor
+        long start = System.nanoTime();
+        try {
+            delegate.streamAll(consumer);
+        } finally {
+            streamAllTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<Book> update(Book book) {
+        long start = System.nanoTime();
+        try {
+            return delegate.update(book);
+        } finally {
+            updateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            deleteByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
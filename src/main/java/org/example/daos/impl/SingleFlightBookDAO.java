@@ -0,0 +1,221 @@
+package org.example.daos.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.configs.DbConfig;
+import org.example.daos.IBookBatchWriter;
+import org.example.daos.IBookDAO;
+import org.example.models.Book;
+import org.example.models.BookCursor;
+import org.example.models.BookField;
+import org.example.models.BookSaveResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Decorador de IBookDAO que agrupa las lecturas idénticas concurrentes (single-flight): si llega una consulta
+ * igual a otra que todavía está en curso, espera su resultado en lugar de lanzar otra consulta a la base de datos.
+ * Los errores también se comparten, de modo que una base de datos saturada no recibe un reintento por cada petición.
+ * <p>
+ * Solo se comparten consultas en curso, nunca resultados ya terminados. Cada escritura que pasa por este DAO
+ * desvincula las consultas en curso, para que una lectura posterior a la escritura no reciba un resultado
+ * anterior a ella. Tampoco se mezclan lecturas que deben ir al primario con las que pueden ir a una réplica.
+ * <p>
+ * Métricas: db.book.singleflight, etiquetada por método y por resultado (executed: consulta lanzada;
+ * shared: consulta ahorrada al compartir una en curso).
+ */
+public class SingleFlightBookDAO implements IBookDAO {
+
+    private final IBookDAO delegate;
+    private final ConcurrentHashMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final FlightCounters findByIdCounters;
+    private final FlightCounters findAllByIdsCounters;
+    private final FlightCounters findAllCounters;
+    private final FlightCounters findPageCounters;
+
+    private record FlightKey(String method, Object arguments, boolean primary) {}
+
+    private record FieldsArguments(int id, Set<BookField> fields) {}
+
+    private record PageArguments(BookCursor after, int limit, Set<BookField> fields) {}
+
+    private record FlightCounters(Counter executed, Counter shared) {}
+
+    public SingleFlightBookDAO(IBookDAO delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.findByIdCounters = counters(registry, "findById");
+        this.findAllByIdsCounters = counters(registry, "findAllByIds");
+        this.findAllCounters = counters(registry, "findAll");
+        this.findPageCounters = counters(registry, "findPage");
+    }
+
+    private static FlightCounters counters(MeterRegistry registry, String method) {
+        return new FlightCounters(counter(registry, method, "executed"), counter(registry, method, "shared"));
+    }
+
+    private static Counter counter(MeterRegistry registry, String method, String result) {
+        return Counter.builder("db.book.singleflight")
+                .description("Lecturas del DAO de libros: ejecutadas o resueltas compartiendo una consulta en curso")
+                .tag("method", method)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public Book save(Book book) {
+        try {
+            return delegate.save(book);
+        } finally {
+            detachInFlight();
+        }
+    }
+
+    @Override
+    public List<BookSaveResult> saveAll(List<Book> books) {
+        try {
+            return delegate.saveAll(books);
+        } finally {
+            detachInFlight();
+        }
+    }
+
+    @Override
+    public IBookBatchWriter openBatchWriter() {
+        IBookBatchWriter writer = delegate.openBatchWriter();
+        return new IBookBatchWriter() {
+            @Override
+            public List<BookSaveResult> write(List<Book> books) {
+                try {
+                    return writer.write(books);
+                } finally {
+                    detachInFlight();
+                }
+            }
+
+            @Override
+            public void close() {
+                writer.close();
+            }
+        };
+    }
+
+    @Override
+    public Optional<Book> findById(int id) {
+        return execute("findById", id, findByIdCounters, () -> delegate.findById(id),
+                book -> book.map(Book::new));
+    }
+
+    @Override
+    public Optional<Book> findById(int id, Set<BookField> fields) {
+        return execute("findByIdFields", new FieldsArguments(id, fields), findByIdCounters,
+                () -> delegate.findById(id, fields), book -> book.map(Book::new));
+    }
+
+    @Override
+    public List<Book> findAllByIds(Collection<Integer> ids) {
+        return execute("findAllByIds", List.copyOf(ids), findAllByIdsCounters,
+                () -> delegate.findAllByIds(ids), SingleFlightBookDAO::copyOf);
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return execute("findAll", null, findAllCounters, delegate::findAll, SingleFlightBookDAO::copyOf);
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit) {
+        return execute("findPage", new PageArguments(after, limit, null), findPageCounters,
+                () -> delegate.findPage(after, limit), SingleFlightBookDAO::copyOf);
+    }
+
+    @Override
+    public List<Book> findPage(BookCursor after, int limit, Set<BookField> fields) {
+        return execute("findPage", new PageArguments(after, limit, fields), findPageCounters,
+                () -> delegate.findPage(after, limit, fields), SingleFlightBookDAO::copyOf);
+    }
+
+    @Override
+    public void streamAll(Consumer<Book> consumer) {
+        // Cada recorrido entrega los libros a su propio consumidor a medida que se leen: no se puede compartir
+        delegate.streamAll(consumer);
+    }
+
+    @Override
+    public Optional<Book> update(Book book) {
+        try {
+            return delegate.update(book);
+        } finally {
+            detachInFlight();
+        }
+    }
+
+    @Override
+    public boolean deleteById(int id) {
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            detachInFlight();
+        }
+    }
+
+    /**
+     * Ejecuta la consulta, o espera la consulta idéntica que ya está en curso.
+     * @param copy Copia el resultado para cada llamada: Book es mutable y los servicios modifican las entidades que reciben.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T execute(String method, Object arguments, FlightCounters counters, Supplier<T> query, UnaryOperator<T> copy) {
+        FlightKey key = new FlightKey(method, arguments, DbConfig.isPrimaryReads());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> current = inFlight.putIfAbsent(key, flight);
+        if (current != null) {
+            counters.shared().increment();
+            try {
+                return copy.apply((T) current.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        counters.executed().increment();
+        try {
+            T result = query.get();
+            flight.complete(result);
+            // El resultado compartido no se entrega a nadie: cada llamada recibe su copia, que puede modificar
+            return copy.apply(result);
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Tras una escritura, las consultas en curso pueden no reflejarla: se desvinculan para que las lecturas
+     * que lleguen a partir de ahora lancen una consulta nueva (quienes ya esperan reciben su resultado igualmente).
+     */
+    private void detachInFlight() {
+        inFlight.clear();
+    }
+
+    private static List<Book> copyOf(List<Book> books) {
+        List<Book> copy = new ArrayList<>(books.size());
+        for (Book book : books) {
+            copy.add(new Book(book));
+        }
+        return copy;
+    }
+}
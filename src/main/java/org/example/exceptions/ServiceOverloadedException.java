@@ -0,0 +1,18 @@
+package org.example.exceptions;
+
+/**
+ * Excepción para indicar que el servidor no puede aceptar más trabajo en este momento.
+ * Se mapea a un 503 Service Unavailable con la cabecera Retry-After en la API.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.logging;
+
+import ch.qos.logback.classic.pattern.ThrowableProxyConverter;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.core.CoreConstants;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conversor de logback (%sampledEx) que imprime la traza completa de una excepción solo una vez por intervalo
+ * para cada "firma" (clase de la excepción y primer elemento de su pila). Las repeticiones dentro del intervalo
+ * se resumen en una línea, y la siguiente traza completa indica cuántas se omitieron.
+ * Durante una caída de la base de datos, cada petición falla con la misma excepción: sin este muestreo,
+ * la consola recibiría cientos de trazas idénticas por segundo.
+ */
+public class SampledThrowableConverter extends ThrowableProxyConverter {
+
+    private static final int MAX_TRACKED_SIGNATURES = 1000;
+
+    private static volatile long intervalNanos = Duration.ofSeconds(60).toNanos();
+
+    private final ConcurrentHashMap<String, Occurrences> occurrences = new ConcurrentHashMap<>();
+
+    private static final class Occurrences {
+        private long lastPrintedNanos; // Protegidos por la propia instancia
+        private int suppressed;
+
+        private Occurrences(long lastPrintedNanos) {
+            this.lastPrintedNanos = lastPrintedNanos;
+        }
+    }
+
+    /**
+     * Fija el intervalo mínimo entre dos trazas completas con la misma firma (0 imprime todas).
+     */
+    public static void setInterval(Duration interval) {
+        intervalNanos = interval.toNanos();
+    }
+
+    @Override
+    protected String throwableProxyToString(IThrowableProxy throwable) {
+        long interval = intervalNanos;
+        if (interval <= 0) {
+            return super.throwableProxyToString(throwable);
+        }
+        String signature = signature(throwable);
+        if (occurrences.size() >= MAX_TRACKED_SIGNATURES && !occurrences.containsKey(signature)) {
+            occurrences.clear(); // Cota de memoria: a lo sumo se repite alguna traza completa
+        }
+        long now = System.nanoTime();
+        Occurrences seen = occurrences.computeIfAbsent(signature, key -> new Occurrences(now - interval));
+        int suppressed;
+        synchronized (seen) {
+            if (now - seen.lastPrintedNanos < interval) {
+                seen.suppressed++;
+                return "\t[traza omitida, repetida en los últimos " + Duration.ofNanos(interval).toSeconds() + " s: "
+                        + throwable.getClassName() + ": " + throwable.getMessage() + "]" + CoreConstants.LINE_SEPARATOR;
+            }
+            suppressed = seen.suppressed;
+            seen.suppressed = 0;
+            seen.lastPrintedNanos = now;
+        }
+        String trace = super.throwableProxyToString(throwable);
+        if (suppressed == 0) {
+            return trace;
+        }
+        return "\t[" + suppressed + " trazas iguales omitidas desde la anterior]" + CoreConstants.LINE_SEPARATOR + trace;
+    }
+
+    private static String signature(IThrowableProxy throwable) {
+        StackTraceElementProxy[] stack = throwable.getStackTraceElementProxyArray();
+        return stack.length == 0 ? throwable.getClassName() : throwable.getClassName() + "@" + stack[0].getSTEAsString();
+    }
+}
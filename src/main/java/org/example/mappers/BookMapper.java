@@ -1,11 +1,15 @@
 package org.example.mappers;
 
 import org.example.models.Book;
+import org.example.models.BookField;
 import org.example.models.dtos.BookCreateDTO;
 import org.example.models.dtos.BookDTO;
 import org.example.models.dtos.BookUpdateDTO;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -59,6 +63,30 @@ public class BookMapper {
         );
     }
 
+    /**
+     * Convierte una entidad Book en un mapa con solo los campos solicitados (sparse fieldset),
+     * en el mismo orden y con los mismos nombres que BookDTO, para serializar únicamente esas propiedades.
+     * @param book La entidad Book (puede estar leída parcialmente).
+     * @param fields Los campos a incluir.
+     * @return El mapa campo -> valor.
+     */
+    public Map<String, Object> toFieldMap(Book book, Set<BookField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (BookField field : fields) {
+            Object value = switch (field) {
+                case ID -> book.getId();
+                case TITLE -> book.getTitle();
+                case AUTHOR -> book.getAuthor();
+                case PUBLICATION_YEAR -> book.getPublicationYear();
+                case ISBN -> book.getIsbn();
+                case CREATED_AT -> book.getCreatedAt();
+                case UPDATED_AT -> book.getUpdatedAt();
+            };
+            values.put(field.getJsonName(), value);
+        }
+        return values;
+    }
+
     /**
      * Convierte una lista de entidades Book a una lista de BookDTOs.
      * @param books La lista de entidades Book.
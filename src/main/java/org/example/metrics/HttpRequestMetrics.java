@@ -0,0 +1,91 @@
+package org.example.metrics;
+
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Mide la latencia de cada petición HTTP por método, ruta (la plantilla, p. ej. /api/books/{id}) y código de estado.
+ * <p>
+ * El registro está pensado para la ruta crítica: los Timer se resuelven una sola vez y quedan en tablas
+ * (método → ruta → estado) que después solo se leen, de forma que una petición no toma bloqueos para registrar
+ * su duración. El instante de inicio se guarda como atributo de la petición, no del hilo, porque el manejador
+ * 'after' puede ejecutarse en otro hilo (peticiones asíncronas, como ctx.future()).
+ */
+public class HttpRequestMetrics {
+
+    private static final String METRIC_NAME = "http.server.requests";
+    private static final String UNMATCHED_ROUTE = "NOT_FOUND"; // Evita una serie por cada URL inexistente
+    private static final int MAX_STATUS = 600;
+    private static final String START_ATTRIBUTE = HttpRequestMetrics.class.getName() + ".start";
+
+    private final MeterRegistry registry;
+    private final Map<HandlerType, ConcurrentHashMap<String, AtomicReferenceArray<Timer>>> timers = new EnumMap<>(HandlerType.class);
+
+    public HttpRequestMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        // Se crean todas las entradas por método de antemano; después el EnumMap solo se lee
+        for (HandlerType type : HandlerType.values()) {
+            timers.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Manejador 'before': anota el instante de inicio de la petición.
+     */
+    public void start(Context ctx) {
+        ctx.attribute(START_ATTRIBUTE, System.nanoTime());
+    }
+
+    /**
+     * Manejador 'after': registra la duración en el Timer de la ruta y el estado de la respuesta.
+     */
+    public void stop(Context ctx) {
+        Long start = ctx.attribute(START_ATTRIBUTE);
+        if (start == null) {
+            return; // La petición falló antes del manejador 'before'
+        }
+        long elapsed = System.nanoTime() - start;
+        timerFor(ctx.method(), routeOf(ctx), ctx.statusCode()).record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timerFor(HandlerType method, String route, int status) {
+        ConcurrentHashMap<String, AtomicReferenceArray<Timer>> byRoute = timers.get(method);
+        AtomicReferenceArray<Timer> byStatus = byRoute.get(route);
+        if (byStatus == null) {
+            byRoute.putIfAbsent(route, new AtomicReferenceArray<>(MAX_STATUS));
+            byStatus = byRoute.get(route);
+        }
+
+        int index = status > 0 && status < MAX_STATUS ? status : 0;
+        Timer timer = byStatus.get(index);
+        if (timer == null) {
+            // El registro devuelve el mismo Timer para las mismas etiquetas, así que una carrera aquí es inocua
+            timer = Timer.builder(METRIC_NAME)
+                    .description("Latencia de las peticiones HTTP por ruta y estado")
+                    .tag("method", method.name())
+                    .tag("uri", route)
+                    .tag("status", String.valueOf(status))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(registry);
+            byStatus.set(index, timer);
+        }
+        return timer;
+    }
+
+    private static String routeOf(Context ctx) {
+        // Sin endpoint coincidente, Javalin devuelve un texto descriptivo en lugar de una plantilla de ruta
+        String route = ctx.endpointHandlerPath();
+        return route != null && route.startsWith("/") ? route : UNMATCHED_ROUTE;
+    }
+}
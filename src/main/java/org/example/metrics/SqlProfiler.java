@@ -0,0 +1,542 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Perfilado de las sentencias SQL: envuelve (con proxies dinámicos) las conexiones que entrega DbConfig,
+ * y sus sentencias y resultados, para medir cada ejecución.
+ * <ul>
+ *   <li>Por sentencia (normalizada: las listas IN de cualquier tamaño cuentan como una): ejecuciones,
+ *       tiempo total y máximo, y filas devueltas o modificadas.</li>
+ *   <li>Métricas: db.sql.statement y db.sql.rows por operación (select, insert...), y db.connection.acquire
+ *       por pool (incluye la espera del bulkhead, que no aparece en las métricas de Hikari).</li>
+ *   <li>Un registro acotado de consultas lentas (por encima del umbral), con el tiempo de obtención de su conexión
+ *       y el ID de la petición. Los valores de sus parámetros solo se guardan para el EXPLAIN, no se exponen.
+ *       Para cada sentencia lenta se captura su plan (EXPLAIN) en segundo plano, sobre una conexión dedicada
+ *       al mismo servidor que la ejecutó, como mucho una vez por intervalo.</li>
+ * </ul>
+ * El tiempo de una consulta incluye su ejecución y la lectura de las filas (next()), pero no lo que el código
+ * hace con cada fila. Por debajo del umbral, el coste es el de los proxies y unos contadores, sin bloqueos.
+ */
+public class SqlProfiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlProfiler.class);
+
+    private static final int MAX_TRACKED_STATEMENTS = 500;
+    private static final String OTHER_STATEMENTS = "(otras sentencias)";
+    private static final Set<String> OPERATIONS = Set.of("select", "insert", "update", "delete");
+    private static final Set<String> EXPLAINABLE_OPERATIONS = Set.of("select", "update", "delete");
+    private static final Duration PLAN_TTL = Duration.ofMinutes(10);
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    /**
+     * Obtiene una conexión sin perfilar para ejecutar EXPLAIN contra el mismo servidor que el pool indicado,
+     * sin ocupar conexiones de ese pool. Se cierra (o se devuelve) tras cada plan.
+     */
+    @FunctionalInterface
+    public interface ConnectionSource {
+        Connection open(String pool) throws SQLException;
+    }
+
+    /**
+     * Estadísticas acumuladas de una sentencia, para el endpoint de administración.
+     */
+    public record StatementSummary(String sql, long executions, double totalMs, double meanMs, double maxMs, long rows) {}
+
+    /**
+     * Una ejecución lenta. {@code plan} es null mientras el EXPLAIN no se haya capturado (o si no aplica).
+     * Los valores de los parámetros no se exponen (pueden contener datos de los usuarios), solo cuántos había.
+     */
+    public record SlowQuery(LocalDateTime timestamp, String sql, int parameterCount, double durationMs, long rows,
+                            String pool, double connectionAcquireMs, String requestId,
+                            List<Map<String, Object>> plan, String planError) {}
+
+    private record CapturedPlan(List<Map<String, Object>> rows, String error, long capturedNanos) {}
+
+    private record SlowEntry(LocalDateTime timestamp, String sql, String normalizedSql, List<Object> parameters,
+                             long nanos, long rows, String pool, long acquireNanos, String requestId) {}
+
+    private final MeterRegistry registry;
+    private final long thresholdNanos;
+    private final int slowLogSize;
+    private final boolean explainEnabled;
+    private final ConnectionSource explainConnections;
+
+    // Por texto SQL exacto (resuelve la normalización una sola vez) y por sentencia normalizada
+    private final ConcurrentHashMap<String, StatementStats> statsBySql = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, StatementStats> statsByStatement = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Timer> acquireTimers = new ConcurrentHashMap<>();
+    private final Deque<SlowEntry> slowLog = new ArrayDeque<>(); // Protegido por sí mismo
+    private final ConcurrentHashMap<String, CapturedPlan> plans = new ConcurrentHashMap<>();
+    private final Set<String> pendingPlans = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor explainExecutor;
+
+    /**
+     * @param slowQueryThresholdMs La duración a partir de la cual una ejecución se considera lenta.
+     * @param slowLogSize El número de consultas lentas que se conservan (las más recientes).
+     * @param explainEnabled Indica si se captura el plan de las sentencias lentas.
+     * @param explainConnections El origen de las conexiones para EXPLAIN, por pool.
+     */
+    public SqlProfiler(MeterRegistry registry, long slowQueryThresholdMs, int slowLogSize,
+                       boolean explainEnabled, ConnectionSource explainConnections) {
+        this.registry = registry;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMs);
+        this.slowLogSize = slowLogSize;
+        this.explainEnabled = explainEnabled;
+        this.explainConnections = explainConnections;
+        // Un solo hilo y una cola corta: si la base de datos va lenta, los EXPLAIN sobrantes se descartan
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16), runnable -> {
+            Thread thread = new Thread(runnable, "sql-explain");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public long getSlowQueryThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * Envuelve una conexión recién obtenida del pool.
+     * @param pool El nombre del pool de origen.
+     * @param acquireNanos El tiempo que se esperó para obtenerla.
+     */
+    public Connection wrap(Connection connection, String pool, long acquireNanos) {
+        acquireTimers.computeIfAbsent(pool, name -> Timer.builder("db.connection.acquire")
+                .description("Tiempo de obtención de una conexión, incluida la espera del bulkhead")
+                .tag("pool", name)
+                .register(registry)).record(acquireNanos, TimeUnit.NANOSECONDS);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection, pool, acquireNanos));
+    }
+
+    /**
+     * Sentencias ordenadas por tiempo total, de mayor a menor.
+     */
+    public List<StatementSummary> topStatements(int limit) {
+        return statsByStatement.values().stream()
+                .filter(stats -> stats.executions.sum() > 0)
+                .sorted(Comparator.comparingLong((StatementStats stats) -> stats.totalNanos.sum()).reversed())
+                .limit(limit)
+                .map(StatementStats::summary)
+                .toList();
+    }
+
+    /**
+     * Consultas lentas, de la más reciente a la más antigua, con su plan si ya se capturó.
+     */
+    public List<SlowQuery> slowQueries() {
+        List<SlowEntry> entries;
+        synchronized (slowLog) {
+            entries = new ArrayList<>(slowLog);
+        }
+        List<SlowQuery> queries = new ArrayList<>(entries.size());
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            SlowEntry entry = entries.get(i);
+            CapturedPlan plan = plans.get(entry.normalizedSql());
+            queries.add(new SlowQuery(entry.timestamp(), entry.sql(), entry.parameters().size(), toMillis(entry.nanos()),
+                    entry.rows(), entry.pool(), toMillis(entry.acquireNanos()), entry.requestId(),
+                    plan == null ? null : plan.rows(), plan == null ? null : plan.error()));
+        }
+        return queries;
+    }
+
+    /**
+     * Vacía las estadísticas, el registro de consultas lentas y los planes capturados (no las métricas).
+     */
+    public void reset() {
+        statsBySql.clear();
+        statsByStatement.clear();
+        plans.clear();
+        synchronized (slowLog) {
+            slowLog.clear();
+        }
+    }
+
+    public void close() {
+        explainExecutor.shutdownNow();
+    }
+
+    private void record(String sql, Object[] parameters, long nanos, long rows, ConnectionHandler connection) {
+        StatementStats stats = statsFor(sql);
+        stats.record(nanos, rows);
+        if (nanos >= thresholdNanos) {
+            recordSlow(sql, stats, parameters, nanos, rows, connection);
+        }
+    }
+
+    private StatementStats statsFor(String sql) {
+        StatementStats stats = statsBySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String normalized = normalize(sql);
+        if (statsByStatement.size() >= MAX_TRACKED_STATEMENTS && !statsByStatement.containsKey(normalized)) {
+            normalized = OTHER_STATEMENTS; // Cota de memoria y de cardinalidad
+        }
+        stats = statsByStatement.computeIfAbsent(normalized, StatementStats::new);
+        if (statsBySql.size() < MAX_TRACKED_STATEMENTS * 4) {
+            statsBySql.put(sql, stats);
+        }
+        return stats;
+    }
+
+    private void recordSlow(String sql, StatementStats stats, Object[] parameters, long nanos, long rows,
+                            ConnectionHandler connection) {
+        SlowEntry entry = new SlowEntry(LocalDateTime.now(), sql, stats.statement, parameterList(parameters), nanos, rows,
+                connection.pool, connection.acquireNanos, MDC.get("requestId"));
+        synchronized (slowLog) {
+            if (slowLog.size() >= slowLogSize) {
+                slowLog.removeFirst();
+            }
+            slowLog.addLast(entry);
+        }
+        logger.warn("Consulta lenta ({} ms, {} filas, conexión obtenida en {} ms): {}",
+                toMillis(nanos), rows, toMillis(connection.acquireNanos), stats.statement);
+        if (explainEnabled && EXPLAINABLE_OPERATIONS.contains(stats.operation)) {
+            scheduleExplain(entry);
+        }
+    }
+
+    private void scheduleExplain(SlowEntry entry) {
+        CapturedPlan plan = plans.get(entry.normalizedSql());
+        boolean fresh = plan != null && System.nanoTime() - plan.capturedNanos() < PLAN_TTL.toNanos();
+        if (fresh || !pendingPlans.add(entry.normalizedSql())) {
+            return;
+        }
+        try {
+            explainExecutor.execute(() -> {
+                try {
+                    plans.put(entry.normalizedSql(), explain(entry));
+                } finally {
+                    pendingPlans.remove(entry.normalizedSql());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Cola llena (o cerrada): se descarta, y se reintentará con la próxima ejecución lenta
+            pendingPlans.remove(entry.normalizedSql());
+        }
+    }
+
+    /**
+     * Ejecuta EXPLAIN de la sentencia con los mismos parámetros que la ejecución lenta.
+     */
+    private CapturedPlan explain(SlowEntry entry) {
+        try (Connection connection = explainConnections.open(entry.pool());
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + entry.sql())) {
+            List<Object> parameters = entry.parameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            List<Map<String, Object>> rows = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                while (resultSet.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                        Object value = resultSet.getObject(column);
+                        row.put(metaData.getColumnLabel(column), value == null ? null : value.toString());
+                    }
+                    rows.add(row);
+                }
+            }
+            return new CapturedPlan(rows, null, System.nanoTime());
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("No se pudo obtener el plan de la consulta lenta: {}", e.getMessage());
+            return new CapturedPlan(null, e.getMessage(), System.nanoTime());
+        }
+    }
+
+    private static List<Object> parameterList(Object[] parameters) {
+        if (parameters == null) {
+            return List.of();
+        }
+        List<Object> list = new ArrayList<>(parameters.length);
+        for (Object parameter : parameters) {
+            if (parameter instanceof String text && text.length() > MAX_PARAMETER_LENGTH) {
+                parameter = text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+            }
+            list.add(parameter);
+        }
+        return list;
+    }
+
+    static String normalize(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(collapsed).replaceAll("(?, ...)");
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private final class StatementStats {
+        private final String statement;
+        private final String operation;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final Timer timer;
+        private final DistributionSummary rowsSummary;
+
+        private StatementStats(String statement) {
+            this.statement = statement;
+            int space = statement.indexOf(' ');
+            String keyword = (space < 0 ? statement : statement.substring(0, space)).toLowerCase(Locale.ROOT);
+            this.operation = OPERATIONS.contains(keyword) ? keyword : "other";
+            this.timer = Timer.builder("db.sql.statement")
+                    .description("Duración de las sentencias SQL (ejecución y lectura de filas)")
+                    .tag("operation", operation)
+                    .register(registry);
+            this.rowsSummary = DistributionSummary.builder("db.sql.rows")
+                    .description("Filas devueltas o modificadas por cada sentencia SQL")
+                    .tag("operation", operation)
+                    .register(registry);
+        }
+
+        private void record(long nanos, long rowCount) {
+            executions.increment();
+            totalNanos.add(nanos);
+            rows.add(rowCount);
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            rowsSummary.record(rowCount);
+        }
+
+        private StatementSummary summary() {
+            long count = executions.sum();
+            long total = totalNanos.sum();
+            return new StatementSummary(statement, count, toMillis(total), count == 0 ? 0 : toMillis(total / count),
+                    toMillis(maxNanos.get()), rows.sum());
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final String pool;
+        private final long acquireNanos;
+
+        private ConnectionHandler(Connection target, String pool, long acquireNanos) {
+            this.target = target;
+            this.pool = pool;
+            this.acquireNanos = acquireNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlProfiler.invoke(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement" -> {
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                            new StatementHandler((Statement) result, (String) args[0], this));
+                }
+                case "createStatement" -> {
+                    return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{Statement.class},
+                            new StatementHandler((Statement) result, null, this));
+                }
+                default -> {
+                    return result;
+                }
+            }
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private final ConnectionHandler connection;
+        private Object[] parameters;
+        private int parameterCount;
+        private Execution openExecution;
+
+        private StatementHandler(Statement target, String sql, ConnectionHandler connection) {
+            this.target = target;
+            this.sql = sql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args, name);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                // Parámetro de un PreparedStatement (setInt, setString, setNull...): se guarda para el EXPLAIN
+                setParameter(index, "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameters = null;
+                parameterCount = 0;
+            } else if ("close".equals(name) && openExecution != null) {
+                openExecution.finish();
+            }
+            return SqlProfiler.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args, String name) throws Throwable {
+            String executedSql = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            Object[] executedParameters = parameters == null ? null : Arrays.copyOf(parameters, parameterCount);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = SqlProfiler.invoke(target, method, args);
+            } catch (Throwable e) {
+                if (executedSql != null) {
+                    record(executedSql, executedParameters, System.nanoTime() - start, 0, connection);
+                }
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (executedSql == null) {
+                return result;
+            }
+            if (result instanceof ResultSet resultSet) {
+                openExecution = new Execution(executedSql, executedParameters, elapsed, connection);
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        new ResultSetHandler(resultSet, openExecution));
+            }
+            record(executedSql, executedParameters, elapsed, affectedRows(result), connection);
+            return result;
+        }
+
+        private void setParameter(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (parameters == null) {
+                parameters = new Object[Math.max(index, 4)];
+            } else if (parameters.length < index) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Number count) {
+            return Math.max(count.longValue(), 0);
+        }
+        long total = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Una consulta cuyas filas se están leyendo: se registra al cerrar el ResultSet (o su sentencia).
+     */
+    private final class Execution {
+        private final String sql;
+        private final Object[] parameters;
+        private final ConnectionHandler connection;
+        private long nanos;
+        private long rows;
+        private boolean finished;
+
+        private Execution(String sql, Object[] parameters, long executeNanos, ConnectionHandler connection) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.nanos = executeNanos;
+            this.connection = connection;
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                record(sql, parameters, nanos, rows, connection);
+            }
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Execution execution;
+
+        private ResultSetHandler(ResultSet target, Execution execution) {
+            this.target = target;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next" -> {
+                    long start = System.nanoTime();
+                    Object hasRow = SqlProfiler.invoke(target, method, args);
+                    execution.nanos += System.nanoTime() - start;
+                    if (Boolean.TRUE.equals(hasRow)) {
+                        execution.rows++;
+                    }
+                    return hasRow;
+                }
+                case "close" -> {
+                    try {
+                        return SqlProfiler.invoke(target, method, args);
+                    } finally {
+                        execution.finish();
+                    }
+                }
+                default -> {
+                    return SqlProfiler.invoke(target, method, args);
+                }
+            }
+        }
+    }
+}
@@ -14,6 +14,20 @@ public class Book {
     public Book() {
     }
 
+    /**
+     * Crea una copia del libro indicado.
+     * @param source El libro a copiar.
+     */
+    public Book(Book source) {
+        this.id = source.id;
+        this.title = source.title;
+        this.author = source.author;
+        this.publicationYear = source.publicationYear;
+        this.isbn = source.isbn;
+        this.createdAt = source.createdAt;
+        this.updatedAt = source.updatedAt;
+    }
+
     // --- Getters y Setters ---
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
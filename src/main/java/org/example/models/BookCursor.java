@@ -0,0 +1,53 @@
+package org.example.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Clave de búsqueda (seek key) usada en la paginación por cursor del listado de libros.
+ * Corresponde al último par (title, id) devuelto en la página anterior, que coincide con
+ * el orden del listado (ORDER BY title, id).
+ * Se serializa como una cadena Base64 URL-safe para que el cliente la trate como un valor opaco.
+ */
+public record BookCursor(String title, int id) {
+
+    private static final char SEPARATOR = '\u0000';
+
+    /**
+     * Crea el cursor que apunta justo después del libro indicado.
+     * @param book El último libro de la página actual.
+     * @return El cursor correspondiente.
+     */
+    public static BookCursor after(Book book) {
+        return new BookCursor(book.getTitle(), book.getId());
+    }
+
+    /**
+     * Codifica el cursor como una cadena opaca.
+     * @return La representación Base64 URL-safe del cursor.
+     */
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + title;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     * @param encoded La cadena opaca generada previamente por {@link #encode()}.
+     * @return El cursor decodificado.
+     * @throws IllegalArgumentException si el cursor no es válido.
+     */
+    public static BookCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("Cursor de paginación no válido.");
+            }
+            int id = Integer.parseInt(raw.substring(0, separatorIndex));
+            return new BookCursor(raw.substring(separatorIndex + 1), id);
+        } catch (IllegalArgumentException e) { // Incluye NumberFormatException y errores de Base64
+            throw new IllegalArgumentException("Cursor de paginación no válido.", e);
+        }
+    }
+}
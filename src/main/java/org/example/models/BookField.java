@@ -0,0 +1,96 @@
+package org.example.models;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Campos de un libro que se pueden solicitar con el parámetro {@code fields} (sparse fieldsets).
+ * Es la lista blanca que relaciona el nombre del campo en la API con su columna en la tabla 'books';
+ * solo estas columnas pueden llegar a la consulta SQL.
+ */
+public enum BookField {
+    ID("id", "id"),
+    TITLE("title", "title"),
+    AUTHOR("author", "author"),
+    PUBLICATION_YEAR("publicationYear", "publication_year"),
+    ISBN("isbn", "isbn"),
+    CREATED_AT("createdAt", "created_at"),
+    UPDATED_AT("updatedAt", "updated_at");
+
+    public static final Set<BookField> ALL = Collections.unmodifiableSet(EnumSet.allOf(BookField.class));
+
+    private final String jsonName;
+    private final String column;
+
+    BookField(String jsonName, String column) {
+        this.jsonName = jsonName;
+        this.column = column;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Interpreta el parámetro {@code fields} (nombres separados por comas, p. ej. "id,title,author").
+     * @param fieldsParam El valor del parámetro, o null si no se indicó.
+     * @return Los campos solicitados, o null si no se indicó el parámetro (se devuelven todos).
+     * @throws IllegalArgumentException si algún nombre no es un campo válido o no se indica ninguno.
+     */
+    public static Set<BookField> parse(String fieldsParam) {
+        if (fieldsParam == null) {
+            return null;
+        }
+        Set<BookField> fields = EnumSet.noneOf(BookField.class);
+        for (String name : fieldsParam.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            fields.add(fromJsonName(trimmed));
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("El parámetro 'fields' debe indicar al menos un campo.");
+        }
+        return fields;
+    }
+
+    /**
+     * Devuelve los campos indicados más los obligatorios (por ejemplo, los que necesita el cursor de paginación).
+     */
+    public static Set<BookField> withRequired(Set<BookField> fields, BookField... required) {
+        Set<BookField> columns = EnumSet.copyOf(fields);
+        Collections.addAll(columns, required);
+        return columns;
+    }
+
+    /**
+     * Construye la lista de columnas de un SELECT a partir de los campos (siempre de esta lista blanca).
+     */
+    public static String toColumnList(Set<BookField> fields) {
+        StringJoiner columns = new StringJoiner(", ");
+        for (BookField field : fields) {
+            columns.add(field.column);
+        }
+        return columns.toString();
+    }
+
+    private static BookField fromJsonName(String name) {
+        for (BookField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        StringJoiner allowed = new StringJoiner(", ");
+        for (BookField field : values()) {
+            allowed.add(field.jsonName);
+        }
+        throw new IllegalArgumentException("Campo no válido en 'fields': '" + name + "'. Campos permitidos: " + allowed + ".");
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.models;
+
+/**
+ * Resultado del guardado de un libro dentro de una operación por lotes.
+ * @param book El libro procesado (con su ID asignado si se guardó correctamente).
+ * @param errorMessage El mensaje de error, o null si el libro se guardó correctamente.
+ * @param duplicateIsbn true si el error se debe a un ISBN ya registrado.
+ */
+public record BookSaveResult(Book book, String errorMessage, boolean duplicateIsbn) {
+
+    public static BookSaveResult saved(Book book) {
+        return new BookSaveResult(book, null, false);
+    }
+
+    public static BookSaveResult failed(Book book, String errorMessage) {
+        return new BookSaveResult(book, errorMessage, false);
+    }
+
+    public static BookSaveResult duplicate(Book book) {
+        return new BookSaveResult(book, "Clave duplicada: El ISBN ya existe.", true);
+    }
+
+    public boolean isSaved() {
+        return errorMessage == null;
+    }
+}
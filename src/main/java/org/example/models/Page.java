@@ -0,0 +1,15 @@
+package org.example.models;
+
+import java.util.List;
+
+/**
+ * Representa una página de resultados obtenida mediante paginación por cursor (keyset).
+ * @param items Los elementos de la página actual.
+ * @param nextCursor Cursor opaco para solicitar la siguiente página, o null si no hay más resultados.
+ */
+public record Page<T>(List<T> items, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.models.dtos;
+
+/**
+ * DTO con el resultado de un elemento de una creación por lotes.
+ * @param index La posición del elemento en el array de la petición.
+ * @param success true si el libro se creó correctamente.
+ * @param id El ID generado, o null si el libro no se creó.
+ * @param message El motivo del error, o null si el libro se creó.
+ */
+public record BookBatchItemDTO(int index, boolean success, Integer id, String message) {}
@@ -0,0 +1,8 @@
+package org.example.models.dtos;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para la creación de libros por lotes (datos de salida para POST /api/books/batch).
+ */
+public record BookBatchResultDTO(int created, int failed, List<BookBatchItemDTO> items) {}
@@ -0,0 +1,10 @@
+package org.example.models.dtos;
+
+/**
+ * DTO de un cambio del catálogo en el feed de cambios.
+ * @param version La versión del feed que produjo el cambio (creciente, sin huecos).
+ * @param type "created", "updated" o "deleted".
+ * @param bookId El ID del libro afectado.
+ * @param book El libro tras el cambio, o null si es una baja (en los cambios "updated" puede faltar createdAt, ver {@link BookDTO}).
+ */
+public record BookChangeDTO(long version, String type, int bookId, BookDTO book) {}
@@ -0,0 +1,12 @@
+package org.example.models.dtos;
+
+import java.util.List;
+
+/**
+ * DTO de la respuesta del feed de cambios: los cambios posteriores a la versión que tiene el cliente.
+ * @param feedId El identificador del feed; cambia con cada arranque del servidor.
+ * @param version La última versión del feed, desde la que el cliente debe pedir los siguientes cambios.
+ * @param resync true si los cambios pedidos ya no están disponibles y el cliente debe recargar el listado completo.
+ * @param changes Los cambios en orden de versión (vacío si resync es true).
+ */
+public record BookChangesDTO(String feedId, long version, boolean resync, List<BookChangeDTO> changes) {}
@@ -1,8 +1,15 @@
 package org.example.models.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 
 /**
  * DTO para la representación de un libro en las respuestas de la API (datos de salida para GET).
+ * <p>
+ * La actualización (PUT y los eventos "updated" del feed de cambios) se hace con un único UPDATE que no
+ * vuelve a leer la fila, así que createdAt solo viaja si se conoce en memoria; si no, el campo se omite
+ * (nunca se envía como null) y el cliente debe conservar el valor que ya tuviera, ya que no cambia al actualizar.
  */
-public record BookDTO(int id, String title, String author, int publicationYear, String isbn, LocalDateTime createdAt, LocalDateTime updatedAt) {}
\ No newline at end of file
+public record BookDTO(int id, String title, String author, int publicationYear, String isbn,
+                      @JsonInclude(JsonInclude.Include.NON_NULL) LocalDateTime createdAt, LocalDateTime updatedAt) {}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package org.example.models.dtos;
+
+/**
+ * DTO con el motivo por el que se rechazó una línea de una importación.
+ * @param line El número de línea (1 = primera línea del fichero) donde empieza el registro rechazado.
+ * @param message El motivo del rechazo.
+ */
+public record BookImportErrorDTO(long line, String message) {}
@@ -0,0 +1,20 @@
+package org.example.models.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO con el progreso o el resultado de una importación masiva de libros.
+ * La lista de errores está acotada; 'rejected' contiene el total de líneas rechazadas.
+ */
+public record BookImportStatusDTO(
+        String id,
+        String format,
+        String status,
+        long linesRead,
+        long imported,
+        long rejected,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String failureMessage,
+        List<BookImportErrorDTO> errors) {}
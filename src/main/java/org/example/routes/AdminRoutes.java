@@ -0,0 +1,30 @@
+package org.example.routes;
+
+import io.javalin.Javalin;
+import io.javalin.apibuilder.ApiBuilder;
+import org.example.controllers.AdminController;
+
+/**
+ * Clase que define y registra las rutas de administración y diagnóstico.
+ */
+public class AdminRoutes {
+
+    private final AdminController adminController;
+
+    public AdminRoutes(AdminController adminController) {
+        this.adminController = adminController;
+    }
+
+    public void register(Javalin app) {
+        app.routes(() -> {
+            ApiBuilder.path("/api/admin", () -> {
+                // GET /api/admin/cache - Contadores de la caché de libros
+                ApiBuilder.get("/cache", adminController::getCacheStats);
+                // GET /api/admin/sql - Perfil de las sentencias SQL y consultas lentas (con su plan)
+                ApiBuilder.get("/sql", adminController::getSqlProfile);
+                // DELETE /api/admin/sql - Reinicia el perfil de las sentencias SQL
+                ApiBuilder.delete("/sql", adminController::resetSqlProfile);
+            });
+        });
+    }
+}
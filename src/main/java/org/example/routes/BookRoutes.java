@@ -21,9 +21,35 @@ public class BookRoutes {
                 // POST /api/books - Crear libro
                 ApiBuilder.post(bookController::create);
 
-                // GET /api/books - Listar todos los libros
+                // POST /api/books/batch - Crear varios libros en lotes
+                ApiBuilder.post("/batch", bookController::createBatch);
+
+                // POST /api/books/import?format=csv|ndjson - Importación masiva en streaming
+                ApiBuilder.post("/import", bookController::importBooks);
+
+                // GET /api/books/imports - Progreso de las importaciones recientes
+                ApiBuilder.get("/imports", bookController::getImports);
+
+                // GET /api/books?limit=&cursor= - Listar libros paginados por cursor
+                // GET /api/books?ids=1,2,3 - Obtener varios libros por ID con una sola consulta
                 ApiBuilder.get(bookController::getAll);
 
+                // GET /api/books/search?q=&limit= - Búsqueda por título, autor o ISBN (antes de "/{id}")
+                ApiBuilder.get("/search", bookController::search);
+
+                // GET /api/books/export?format=ndjson|json - Exportar el catálogo completo en streaming
+                // (debe registrarse antes de "/{id}")
+                ApiBuilder.get("/export", bookController::export);
+
+                // GET /api/books/changes?since=&feedId= - Cambios del catálogo desde una versión (antes de "/{id}")
+                ApiBuilder.get("/changes", bookController::getChanges);
+
+                // GET /api/books/changes/stream - Cambios del catálogo en directo (Server-Sent Events)
+                ApiBuilder.sse("/changes/stream", bookController::streamChanges);
+
+                // GET /api/books/isbn/{isbn} - Obtener libro por ISBN (antes de "/{id}")
+                ApiBuilder.get("/isbn/{isbn}", bookController::getByIsbn);
+
                 // GET /api/books/{id} - Obtener libro por ID
                 ApiBuilder.get("/{id}", bookController::getOne);
 
@@ -0,0 +1,17 @@
+package org.example.services;
+
+import org.example.models.Book;
+
+/**
+ * Recibe las altas, modificaciones y bajas de libros confirmadas por los servicios,
+ * para mantener sincronizadas las estructuras derivadas del catálogo (por ejemplo, el índice de búsqueda).
+ * Los métodos se invocan en el hilo que hizo la escritura, después de que esta se haya confirmado.
+ */
+public interface BookChangeListener {
+
+    default void onBookCreated(Book book) {}
+
+    default void onBookUpdated(Book book) {}
+
+    default void onBookDeleted(int id) {}
+}
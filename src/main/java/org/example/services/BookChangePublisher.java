@@ -0,0 +1,54 @@
+package org.example.services;
+
+import org.example.models.Book;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Notifica a los BookChangeListener registrados los cambios confirmados en el catálogo.
+ * Lo comparten BookService y BookImportService para que todas las vías de escritura avisen por igual.
+ * Un error en un listener se registra y no se propaga: la escritura ya está confirmada en la base de datos.
+ */
+public class BookChangePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookChangePublisher.class);
+
+    private final List<BookChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(BookChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void publishCreated(Book book) {
+        for (BookChangeListener listener : listeners) {
+            try {
+                listener.onBookCreated(book);
+            } catch (RuntimeException e) {
+                logger.error("Error al notificar el alta del libro {}", book.getId(), e);
+            }
+        }
+    }
+
+    public void publishUpdated(Book book) {
+        for (BookChangeListener listener : listeners) {
+            try {
+                listener.onBookUpdated(book);
+            } catch (RuntimeException e) {
+                logger.error("Error al notificar la modificación del libro {}", book.getId(), e);
+            }
+        }
+    }
+
+    public void publishDeleted(int id) {
+        for (BookChangeListener listener : listeners) {
+            try {
+                listener.onBookDeleted(id);
+            } catch (RuntimeException e) {
+                logger.error("Error al notificar la baja del libro {}", id, e);
+            }
+        }
+    }
+}
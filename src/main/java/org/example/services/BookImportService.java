@@ -0,0 +1,255 @@
+package org.example.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.configs.AppConfig;
+import org.example.daos.IBookBatchWriter;
+import org.example.daos.IBookDAO;
+import org.example.exceptions.ServiceOverloadedException;
+import org.example.mappers.BookMapper;
+import org.example.models.Book;
+import org.example.models.BookSaveResult;
+import org.example.models.dtos.BookImportStatusDTO;
+import org.example.services.imports.BookRecord;
+import org.example.services.imports.BookRecordReader;
+import org.example.services.imports.CsvBookRecordReader;
+import org.example.services.imports.ImportJob;
+import org.example.services.imports.NdjsonBookRecordReader;
+import org.example.services.search.IsbnIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Servicio de importación masiva de libros en streaming (CSV o NDJSON).
+ * El cuerpo de la petición pasa por un pipeline de memoria acotada:
+ * lectura incremental -> validación (mismas reglas que BookService.createBook) -> cola acotada -> escritor por lotes.
+ * El escritor usa una conexión dedicada, fuera del pool, para no quitar conexiones al tráfico interactivo.
+ * Cuando la base de datos va más lenta que la lectura, la cola se llena y el lector deja de consumir el cuerpo
+ * de la petición (backpressure hacia el cliente).
+ */
+public class BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_RECENT_JOBS = 20;
+    private static final long PROGRESS_LOG_INTERVAL = 100_000;
+    private static final ImportChunk END_OF_INPUT = new ImportChunk(List.of(), new long[0]);
+
+    private final IBookDAO bookDAO;
+    private final BookMapper bookMapper;
+    private final ObjectMapper objectMapper;
+    private final BookChangePublisher changePublisher;
+    private final IsbnIndex isbnIndex;
+    private final Semaphore importPermits = new Semaphore(AppConfig.getImportMaxConcurrent());
+    private final Deque<ImportJob> recentJobs = new ConcurrentLinkedDeque<>();
+
+    public BookImportService(IBookDAO bookDAO, BookMapper bookMapper, ObjectMapper objectMapper,
+                             BookChangePublisher changePublisher, IsbnIndex isbnIndex) {
+        this.bookDAO = bookDAO;
+        this.bookMapper = bookMapper;
+        this.objectMapper = objectMapper;
+        this.changePublisher = changePublisher;
+        this.isbnIndex = isbnIndex;
+    }
+
+    /**
+     * Importa los libros leídos de la entrada indicada.
+     * Las líneas inválidas o con ISBN duplicado se rechazan individualmente sin detener la importación.
+     * @param input El flujo de entrada (normalmente, el cuerpo de la petición).
+     * @param format El formato de la entrada: "csv" o "ndjson".
+     * @return El resultado de la importación.
+     * @throws IllegalArgumentException si el formato no es válido o la cabecera CSV es incorrecta.
+     * @throws ServiceOverloadedException si ya hay demasiadas importaciones en curso.
+     */
+    public BookImportStatusDTO importBooks(InputStream input, String format) {
+        if (!"csv".equals(format) && !"ndjson".equals(format)) {
+            throw new IllegalArgumentException("Formato de importación no soportado: " + format + ". Use 'csv' o 'ndjson'.");
+        }
+        if (!importPermits.tryAcquire()) {
+            throw new ServiceOverloadedException("Ya hay demasiadas importaciones en curso. Inténtelo más tarde.", 30);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format, MAX_REPORTED_ERRORS);
+        registerJob(job);
+        try (BookRecordReader reader = createReader(input, format)) {
+            runPipeline(reader, job);
+            job.complete();
+            logger.info("Importación {} terminada: {} líneas leídas.", job.getId(), job.getLinesRead());
+        } catch (IOException e) {
+            job.fail(e.getMessage());
+            throw new UncheckedIOException("Error al leer los datos de la importación.", e);
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            throw e;
+        } finally {
+            importPermits.release();
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Obtiene el progreso de las importaciones más recientes, en curso o terminadas.
+     * @return Una lista con el estado de cada importación, de la más reciente a la más antigua.
+     */
+    public List<BookImportStatusDTO> getRecentImports() {
+        return recentJobs.stream().map(ImportJob::toDto).toList();
+    }
+
+    private void registerJob(ImportJob job) {
+        recentJobs.addFirst(job);
+        while (recentJobs.size() > MAX_RECENT_JOBS) {
+            recentJobs.pollLast();
+        }
+    }
+
+    private BookRecordReader createReader(InputStream input, String format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        return "csv".equals(format) ? new CsvBookRecordReader(reader) : new NdjsonBookRecordReader(reader, objectMapper);
+    }
+
+    private void runPipeline(BookRecordReader reader, ImportJob job) throws IOException {
+        BlockingQueue<ImportChunk> queue = new ArrayBlockingQueue<>(AppConfig.getImportQueueCapacity());
+        AtomicReference<RuntimeException> writerFailure = new AtomicReference<>();
+        // ISBN aceptados en esta importación que el escritor aún no ha procesado (el índice todavía no los conoce),
+        // como batchIsbns en BookService.createBooks; el escritor los retira al procesar su lote, así que el conjunto
+        // no crece más allá de lo que cabe en la cola
+        Set<String> pendingIsbns = ConcurrentHashMap.newKeySet();
+        Thread writerThread = new Thread(() -> writeChunks(queue, job, pendingIsbns, writerFailure), "book-import-writer-" + job.getId());
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        int chunkSize = AppConfig.getDbBatchSize();
+        boolean finished = false;
+        try {
+            List<Book> books = new ArrayList<>(chunkSize);
+            long[] lineNumbers = new long[chunkSize];
+            BookRecord record;
+            while ((record = reader.next()) != null) {
+                job.recordLineRead();
+                if (job.getLinesRead() % PROGRESS_LOG_INTERVAL == 0) {
+                    logger.info("Importación {}: {} líneas leídas...", job.getId(), job.getLinesRead());
+                }
+                if (record.error() != null) {
+                    job.recordRejected(record.lineNumber(), record.error());
+                    continue;
+                }
+                try {
+                    BookService.validateBookData(record.book().title(), record.book().author(), record.book().publicationYear());
+                } catch (IllegalArgumentException e) {
+                    job.recordRejected(record.lineNumber(), e.getMessage());
+                    continue;
+                }
+                // Los ISBN ya registrados, o repetidos dentro de la importación, se rechazan aquí,
+                // sin que su lote tenga que reintentarse fila a fila
+                String isbn = record.book().isbn();
+                if (isbn != null && !isbn.isEmpty()
+                        && (isbnIndex.findId(isbn) != null || !pendingIsbns.add(isbn.toUpperCase(Locale.ROOT)))) {
+                    job.recordRejected(record.lineNumber(), "El ISBN '" + record.book().isbn() + "' ya está registrado.");
+                    continue;
+                }
+
+                lineNumbers[books.size()] = record.lineNumber();
+                books.add(bookMapper.toEntity(record.book()));
+                if (books.size() == chunkSize) {
+                    enqueue(queue, new ImportChunk(books, lineNumbers), writerFailure);
+                    books = new ArrayList<>(chunkSize);
+                    lineNumbers = new long[chunkSize];
+                }
+            }
+            if (!books.isEmpty()) {
+                enqueue(queue, new ImportChunk(books, lineNumbers), writerFailure);
+            }
+            enqueue(queue, END_OF_INPUT, writerFailure);
+            writerThread.join();
+            finished = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("La importación fue interrumpida.", e);
+        } finally {
+            if (!finished) {
+                writerThread.interrupt(); // Detiene el escritor si el lector falló
+            }
+        }
+
+        if (writerFailure.get() != null) {
+            throw writerFailure.get();
+        }
+    }
+
+    /**
+     * Encola un lote para el escritor. Si la cola está llena, espera (backpressure) mientras
+     * comprueba periódicamente que el escritor siga vivo.
+     */
+    private void enqueue(BlockingQueue<ImportChunk> queue, ImportChunk chunk,
+                         AtomicReference<RuntimeException> writerFailure) throws InterruptedException {
+        while (true) {
+            RuntimeException failure = writerFailure.get();
+            if (failure != null) {
+                throw failure;
+            }
+            if (queue.offer(chunk, 1, TimeUnit.SECONDS)) {
+                return;
+            }
+        }
+    }
+
+    private void writeChunks(BlockingQueue<ImportChunk> queue, ImportJob job, Set<String> pendingIsbns,
+                             AtomicReference<RuntimeException> writerFailure) {
+        try (IBookBatchWriter writer = bookDAO.openBatchWriter()) {
+            while (true) {
+                ImportChunk chunk = queue.take();
+                if (chunk == END_OF_INPUT) {
+                    return;
+                }
+                List<BookSaveResult> results = writer.write(chunk.books());
+                int imported = 0;
+                for (int i = 0; i < results.size(); i++) {
+                    BookSaveResult result = results.get(i);
+                    if (result.isSaved()) {
+                        changePublisher.publishCreated(result.book());
+                        imported++;
+                    } else if (result.duplicateIsbn()) {
+                        job.recordRejected(chunk.lineNumbers()[i], "El ISBN '" + result.book().getIsbn() + "' ya está registrado.");
+                    } else {
+                        job.recordRejected(chunk.lineNumbers()[i], result.errorMessage());
+                    }
+                    // Guardado (ya publicado en el índice) o rechazado: deja de estar pendiente
+                    String isbn = result.book().getIsbn();
+                    if (isbn != null) {
+                        pendingIsbns.remove(isbn.toUpperCase(Locale.ROOT));
+                    }
+                }
+                job.recordImported(imported);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // El lector canceló la importación
+        } catch (RuntimeException e) {
+            writerFailure.set(e);
+        }
+    }
+
+    /**
+     * Lote de libros validados junto con la línea de origen de cada uno, para poder reportar sus errores.
+     */
+    private record ImportChunk(List<Book> books, long[] lineNumbers) {}
+}
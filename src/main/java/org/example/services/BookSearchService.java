@@ -0,0 +1,88 @@
+package org.example.services;
+
+import org.example.configs.AppConfig;
+import org.example.daos.IBookDAO;
+import org.example.mappers.BookMapper;
+import org.example.models.Book;
+import org.example.models.dtos.BookDTO;
+import org.example.services.search.BookSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicio de búsqueda de libros por título, autor o ISBN sobre el índice invertido en memoria,
+ * sin recorrer la tabla con consultas LIKE '%texto%'.
+ */
+public class BookSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchService.class);
+
+    private final IBookDAO bookDAO;
+    private final BookMapper bookMapper;
+    private final BookSearchIndex searchIndex;
+
+    public BookSearchService(IBookDAO bookDAO, BookMapper bookMapper, BookSearchIndex searchIndex) {
+        this.bookDAO = bookDAO;
+        this.bookMapper = bookMapper;
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Construye el índice con todos los libros de la base de datos, leídos en streaming.
+     * Debe llamarse al arrancar, antes de empezar a atender peticiones.
+     */
+    public void buildIndex() {
+        long start = System.nanoTime();
+        searchIndex.clear();
+        bookDAO.streamAll(searchIndex::index);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Índice de búsqueda listo: {} libros ({} ms).", searchIndex.size(), elapsedMs);
+    }
+
+    /**
+     * Busca libros cuyo título, autor o ISBN contengan todos los términos de la consulta (completos o como prefijo).
+     * @param query El texto a buscar.
+     * @param limit El número máximo de resultados, o null para usar el valor por defecto.
+     *              Los valores superiores al máximo configurado se recortan a dicho máximo.
+     * @return Los libros encontrados, ordenados por relevancia.
+     * @throws IllegalArgumentException si la consulta está vacía o el límite no es válido.
+     */
+    public List<BookDTO> searchBooks(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("El parámetro 'q' es obligatorio.");
+        }
+        int maxResults = limit == null ? AppConfig.getSearchDefaultLimit() : limit;
+        if (maxResults <= 0) {
+            throw new IllegalArgumentException("El parámetro 'limit' debe ser un número positivo.");
+        }
+        maxResults = Math.min(maxResults, AppConfig.getSearchMaxLimit());
+
+        int[] ids = searchIndex.search(query, maxResults);
+        if (ids.length == 0) {
+            return List.of();
+        }
+        // Una sola consulta para todos los resultados, que después se reordenan por relevancia
+        List<Integer> idList = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            idList.add(id);
+        }
+        Map<Integer, Book> books = new HashMap<>();
+        for (Book book : bookDAO.findAllByIds(idList)) {
+            books.put(book.getId(), book);
+        }
+        List<BookDTO> results = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            // Un libro puede haberse eliminado entre la búsqueda y la lectura; en ese caso se omite
+            Book book = books.get(id);
+            if (book != null) {
+                results.add(bookMapper.toDto(book));
+            }
+        }
+        return results;
+    }
+}
@@ -1,25 +1,63 @@
 package org.example.services;
 
+import org.example.configs.AppConfig;
 import org.example.daos.IBookDAO;
 import org.example.exceptions.DataAccessException;
 import org.example.exceptions.DuplicateIsbnException;
 import org.example.mappers.BookMapper;
 import org.example.models.Book;
+import org.example.models.BookCursor;
+import org.example.models.BookField;
+import org.example.models.BookSaveResult;
+import org.example.models.Page;
+import org.example.models.dtos.BookBatchItemDTO;
+import org.example.models.dtos.BookBatchResultDTO;
 import org.example.models.dtos.BookCreateDTO;
 import org.example.models.dtos.BookDTO;
 import org.example.models.dtos.BookUpdateDTO;
+import org.example.services.search.IsbnIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class BookService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BookService.class);
+
     private final IBookDAO bookDAO;
     private final BookMapper bookMapper;
+    private final BookChangePublisher changePublisher;
+    private final IsbnIndex isbnIndex;
 
-    public BookService(IBookDAO bookDAO, BookMapper bookMapper) {
+    public BookService(IBookDAO bookDAO, BookMapper bookMapper, BookChangePublisher changePublisher, IsbnIndex isbnIndex) {
         this.bookDAO = bookDAO;
         this.bookMapper = bookMapper;
+        this.changePublisher = changePublisher;
+        this.isbnIndex = isbnIndex;
+    }
+
+    /**
+     * Carga el índice de ISBN con todos los libros de la base de datos, leídos en streaming.
+     * Debe llamarse al arrancar, antes de empezar a atender peticiones.
+     */
+    public void buildIsbnIndex() {
+        long start = System.nanoTime();
+        isbnIndex.clear();
+        bookDAO.streamAll(isbnIndex::index);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Índice de ISBN listo: {} libros ({} ms).", isbnIndex.size(), elapsedMs);
     }
 
     /**
@@ -29,14 +67,11 @@ public class BookService {
      */
     public BookDTO createBook(BookCreateDTO dto) {
         // Validaciones básicas de negocio
-        if (dto.title() == null || dto.title().isBlank() ||
-            dto.author() == null || dto.author().isBlank()) {
-            throw new IllegalArgumentException("El título y el autor son obligatorios.");
-        }
-        if (dto.publicationYear() <= 0) {
-            throw new IllegalArgumentException("El año de publicación debe ser un número positivo.");
+        validateBookData(dto.title(), dto.author(), dto.publicationYear());
+        // Los duplicados conocidos se rechazan sin llegar a la base de datos
+        if (isbnIndex.findId(dto.isbn()) != null) {
+            throw new DuplicateIsbnException("El ISBN '" + dto.isbn() + "' ya está registrado.");
         }
-        // Opcional: Validar formato ISBN
 
         try {
             // Mapear DTO a entidad
@@ -44,6 +79,7 @@ public class BookService {
             
             // Guardar en la base de datos
             Book savedBook = bookDAO.save(newBook);
+            changePublisher.publishCreated(savedBook);
 
             // Mapear entidad guardada a DTO de respuesta
             return bookMapper.toDto(savedBook);
@@ -56,6 +92,67 @@ public class BookService {
         }
     }
 
+    /**
+     * Crea varios libros en una sola operación.
+     * Cada libro se valida por separado; los que no son válidos o tienen un ISBN duplicado
+     * se reportan como errores individuales sin impedir la creación del resto.
+     * @param dtos Los DTOs con los datos de los libros a crear.
+     * @return El resumen del lote, con el ID generado o el error de cada elemento.
+     * @throws IllegalArgumentException si la lista está vacía o supera el máximo permitido.
+     */
+    public BookBatchResultDTO createBooks(List<BookCreateDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("La lista de libros a crear no puede estar vacía.");
+        }
+        if (dtos.size() > AppConfig.getBatchMaxItems()) {
+            throw new IllegalArgumentException("No se pueden crear más de " + AppConfig.getBatchMaxItems() + " libros por petición.");
+        }
+
+        BookBatchItemDTO[] items = new BookBatchItemDTO[dtos.size()];
+        List<Book> validBooks = new ArrayList<>(dtos.size());
+        List<Integer> validIndexes = new ArrayList<>(dtos.size());
+        // ISBN ya aceptados en este lote, para no enviar a la base de datos duplicados que provocarían reintentos fila a fila
+        Set<String> batchIsbns = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            BookCreateDTO dto = dtos.get(i);
+            try {
+                if (dto == null) {
+                    throw new IllegalArgumentException("El elemento no puede ser nulo.");
+                }
+                validateBookData(dto.title(), dto.author(), dto.publicationYear());
+            } catch (IllegalArgumentException e) {
+                items[i] = new BookBatchItemDTO(i, false, null, e.getMessage());
+                continue;
+            }
+            if (dto.isbn() != null && !dto.isbn().isEmpty()
+                    && (isbnIndex.findId(dto.isbn()) != null || !batchIsbns.add(dto.isbn().toUpperCase(Locale.ROOT)))) {
+                items[i] = new BookBatchItemDTO(i, false, null, "El ISBN '" + dto.isbn() + "' ya está registrado.");
+                continue;
+            }
+            validBooks.add(bookMapper.toEntity(dto));
+            validIndexes.add(i);
+        }
+
+        int created = 0;
+        if (!validBooks.isEmpty()) {
+            List<BookSaveResult> results = bookDAO.saveAll(validBooks);
+            for (int i = 0; i < results.size(); i++) {
+                BookSaveResult result = results.get(i);
+                int index = validIndexes.get(i);
+                if (result.isSaved()) {
+                    items[index] = new BookBatchItemDTO(index, true, result.book().getId(), null);
+                    changePublisher.publishCreated(result.book());
+                    created++;
+                } else if (result.duplicateIsbn()) {
+                    items[index] = new BookBatchItemDTO(index, false, null, "El ISBN '" + result.book().getIsbn() + "' ya está registrado.");
+                } else {
+                    items[index] = new BookBatchItemDTO(index, false, null, result.errorMessage());
+                }
+            }
+        }
+        return new BookBatchResultDTO(created, dtos.size() - created, Arrays.asList(items));
+    }
+
     /**
      * Obtiene un libro por su ID.
      * @param id El ID del libro.
@@ -69,43 +166,147 @@ public class BookService {
     }
 
     /**
-     * Obtiene una lista de todos los libros.
-     * @return Una lista de DTOs de libros.
+     * Obtiene varios libros por su ID con una sola consulta.
+     * @param ids Los IDs de los libros; los repetidos se devuelven una sola vez.
+     * @return Los libros encontrados, en el orden de los IDs solicitados; los IDs inexistentes se omiten.
+     * @throws IllegalArgumentException si no se indica ningún ID o se superan los permitidos por página.
+     */
+    public List<BookDTO> getBooksByIds(List<Integer> ids) {
+        Set<Integer> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un ID.");
+        }
+        if (uniqueIds.size() > AppConfig.getPageMaxLimit()) {
+            throw new IllegalArgumentException("No se pueden pedir más de " + AppConfig.getPageMaxLimit() + " libros a la vez.");
+        }
+        Map<Integer, Book> found = new HashMap<>();
+        for (Book book : bookDAO.findAllByIds(uniqueIds)) {
+            found.put(book.getId(), book);
+        }
+        List<BookDTO> books = new ArrayList<>(found.size());
+        for (Integer id : uniqueIds) {
+            Book book = found.get(id);
+            if (book != null) {
+                books.add(bookMapper.toDto(book));
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Obtiene un libro por su ISBN. El ID se resuelve con el índice en memoria, así que un ISBN
+     * inexistente se responde sin consultar la base de datos.
+     * @param isbn El ISBN del libro.
+     * @return El DTO del libro.
+     * @throws NoSuchElementException si ningún libro tiene ese ISBN.
      */
-    public List<BookDTO> getAllBooks() {
-        List<Book> books = bookDAO.findAll();
-        return bookMapper.toDtoList(books); // Mapear la lista de entidades a DTOs
+    public BookDTO getBookByIsbn(String isbn) {
+        Integer id = isbnIndex.findId(isbn);
+        return Optional.ofNullable(id)
+                .flatMap(bookDAO::findById)
+                .map(bookMapper::toDto)
+                .orElseThrow(() -> new NoSuchElementException("Libro no encontrado con ISBN: " + isbn));
     }
 
     /**
-     * Actualiza un libro existente.
+     * Obtiene solo los campos indicados de un libro, leyendo de la base de datos únicamente esas columnas.
+     * @param id El ID del libro.
+     * @param fields Los campos a devolver.
+     * @return Un mapa con los campos solicitados.
+     * @throws NoSuchElementException si el libro no se encuentra.
+     */
+    public Map<String, Object> getBookById(int id, Set<BookField> fields) {
+        return bookDAO.findById(id, fields)
+                .map(book -> bookMapper.toFieldMap(book, fields))
+                .orElseThrow(() -> new NoSuchElementException("Libro no encontrado con ID: " + id));
+    }
+
+    /**
+     * Obtiene una página de libros ordenados por título, usando paginación por cursor.
+     * @param cursor El cursor opaco devuelto en la página anterior, o null para la primera página.
+     * @param limit El tamaño de página solicitado, o null para usar el valor por defecto.
+     *              Los valores superiores al máximo configurado se recortan a dicho máximo.
+     * @return Una página de DTOs de libros con el cursor de la página siguiente.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public Page<BookDTO> getAllBooks(String cursor, Integer limit) {
+        Page<Book> page = findPage(cursor, limit, BookField.ALL);
+        return new Page<>(bookMapper.toDtoList(page.items()), page.nextCursor()); // Mapear la lista de entidades a DTOs
+    }
+
+    /**
+     * Igual que {@link #getAllBooks(String, Integer)}, pero devolviendo solo los campos indicados
+     * y leyendo de la base de datos únicamente esas columnas.
+     * @param fields Los campos a devolver de cada libro.
+     * @return Una página de mapas con los campos solicitados.
+     */
+    public Page<Map<String, Object>> getAllBooks(String cursor, Integer limit, Set<BookField> fields) {
+        Page<Book> page = findPage(cursor, limit, fields);
+        List<Map<String, Object>> items = new ArrayList<>(page.items().size());
+        for (Book book : page.items()) {
+            items.add(bookMapper.toFieldMap(book, fields));
+        }
+        return new Page<>(items, page.nextCursor());
+    }
+
+    private Page<Book> findPage(String cursor, Integer limit, Set<BookField> fields) {
+        int pageSize = limit == null ? AppConfig.getPageDefaultLimit() : limit;
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("El parámetro 'limit' debe ser un número positivo.");
+        }
+        pageSize = Math.min(pageSize, AppConfig.getPageMaxLimit());
+
+        BookCursor after = (cursor == null || cursor.isBlank()) ? null : BookCursor.decode(cursor);
+
+        // Se solicita una fila extra para saber si existe una página siguiente sin hacer un COUNT
+        List<Book> books = fields.size() == BookField.ALL.size()
+                ? bookDAO.findPage(after, pageSize + 1)
+                : bookDAO.findPage(after, pageSize + 1, fields);
+        String nextCursor = null;
+        if (books.size() > pageSize) {
+            books = books.subList(0, pageSize);
+            nextCursor = BookCursor.after(books.get(pageSize - 1)).encode();
+        }
+        return new Page<>(books, nextCursor);
+    }
+
+    /**
+     * Exporta todos los libros, entregándolos uno a uno a medida que se leen de la base de datos.
+     * La memoria utilizada es constante sin importar el tamaño del catálogo.
+     * @param consumer La función que recibe el DTO de cada libro.
+     */
+    public void exportAllBooks(Consumer<BookDTO> consumer) {
+        bookDAO.streamAll(book -> consumer.accept(bookMapper.toDto(book)));
+    }
+
+    /**
+     * Actualiza un libro existente con una única sentencia UPDATE.
+     * La existencia del libro se detecta por el número de filas afectadas, sin una consulta previa.
      * @param id El ID del libro a actualizar.
      * @param dto El DTO con los datos de actualización.
-     * @return El DTO del libro actualizado.
+     * @return El DTO del libro actualizado. Es una respuesta parcial: si createdAt no se conoce en memoria se omite
+     *         (no se vuelve a leer el libro), ver {@link BookDTO}.
      * @throws NoSuchElementException si el libro no se encuentra.
      * @throws IllegalArgumentException si los datos de actualización no son válidos.
      */
     public BookDTO updateBook(int id, BookUpdateDTO dto) {
-        // Primero, buscar el libro para asegurarse de que existe
-        Book existingBook = bookDAO.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Libro no encontrado con ID: " + id));
-        
         // Validaciones básicas de negocio para la actualización
-        if (dto.title() == null || dto.title().isBlank() ||
-            dto.author() == null || dto.author().isBlank()) {
-            throw new IllegalArgumentException("El título y el autor son obligatorios.");
-        }
-        if (dto.publicationYear() <= 0) {
-            throw new IllegalArgumentException("El año de publicación debe ser un número positivo.");
+        validateBookData(dto.title(), dto.author(), dto.publicationYear());
+        Integer isbnOwner = isbnIndex.findId(dto.isbn());
+        if (isbnOwner != null && isbnOwner != id) {
+            throw new DuplicateIsbnException("El ISBN '" + dto.isbn() + "' ya está registrado.");
         }
 
-        // Mapear datos del DTO a la entidad existente
-        bookMapper.updateEntityFromDto(existingBook, dto);
+        // Mapear datos del DTO a una entidad con el ID indicado
+        Book book = new Book();
+        book.setId(id);
+        bookMapper.updateEntityFromDto(book, dto);
 
         // Guardar los cambios en la base de datos
         try {
-            Book updatedBook = bookDAO.update(existingBook)
-                    .orElseThrow(() -> new RuntimeException("No se pudo actualizar el libro con ID: " + id));
+            Book updatedBook = bookDAO.update(book)
+                    .orElseThrow(() -> new NoSuchElementException("Libro no encontrado con ID: " + id));
+            changePublisher.publishUpdated(updatedBook);
             return bookMapper.toDto(updatedBook);
         } catch (DataAccessException e) { // <-- Capturar DataAccessException también en update
             if (e.getMessage().contains("Clave duplicada: El ISBN ya existe.")) { 
@@ -116,20 +317,32 @@ public class BookService {
     }
 
     /**
-     * Elimina un libro por su ID.
+     * Elimina un libro por su ID con una única sentencia DELETE.
      * @param id El ID del libro a eliminar.
      * @throws NoSuchElementException si el libro no se encuentra.
-     * @throws RuntimeException si la eliminación falla por una razón inesperada.
      */
     public void deleteBook(int id) {
-        // Primero, verificar que el libro exista antes de intentar eliminarlo
-        bookDAO.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Libro no encontrado con ID: " + id));
-
-        // Eliminar de la base de datos
+        // La existencia del libro se detecta por las filas afectadas, sin una consulta previa
         boolean deleted = bookDAO.deleteById(id);
         if (!deleted) {
-            throw new RuntimeException("No se pudo eliminar el libro con ID: " + id);
+            throw new NoSuchElementException("Libro no encontrado con ID: " + id);
         }
+        changePublisher.publishDeleted(id);
+    }
+
+    /**
+     * Valida las reglas básicas de negocio de los datos de un libro.
+     * Se comparte con BookImportService para que las importaciones apliquen las mismas reglas.
+     * @throws IllegalArgumentException si algún dato no es válido.
+     */
+    static void validateBookData(String title, String author, int publicationYear) {
+        if (title == null || title.isBlank() ||
+            author == null || author.isBlank()) {
+            throw new IllegalArgumentException("El título y el autor son obligatorios.");
+        }
+        if (publicationYear <= 0) {
+            throw new IllegalArgumentException("El año de publicación debe ser un número positivo.");
+        }
+        // Opcional: Validar formato ISBN
     }
 }
\ No newline at end of file
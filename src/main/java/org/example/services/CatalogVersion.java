@@ -0,0 +1,126 @@
+package org.example.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.models.Book;
+import org.example.models.dtos.BookDTO;
+
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión del catálogo de libros, usada para generar ETags y responder GET condicionales (304 Not Modified).
+ * <p>
+ * La versión es un contador que aumenta con cada alta, modificación o baja confirmada (vía BookChangePublisher).
+ * Va acompañada de un identificador de arranque, para que un reinicio (que vuelve a contar desde cero) no repita
+ * ETags de una ejecución anterior. Se asume que todas las escrituras pasan por esta instancia de la aplicación.
+ * <p>
+ * Además recuerda el último ETag servido de cada libro, para que una petición condicional cuyo ETag sigue vigente
+ * se responda sin consultar la base de datos. Cualquier cambio de un libro descarta su ETag recordado.
+ * <p>
+ * Con réplicas de lectura, una consulta hecha justo después de una escritura puede devolver datos anteriores
+ * a ella. Por eso, durante el retraso máximo de replicación tras cada cambio el catálogo no está "asentado"
+ * y no deben emitirse ETags por versión ni recordarse ETags de libros leídos en ese intervalo.
+ */
+public class CatalogVersion implements BookChangeListener {
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private final Cache<Integer, String> bookTags;
+    private final long settleWindowNanos;
+    private volatile long lastChangeNanos;
+
+    /**
+     * @param maxRememberedBooks El número máximo de libros cuyo último ETag se recuerda.
+     * @param settleWindowMs El retraso máximo de replicación de las réplicas de lectura (0 si no hay réplicas).
+     */
+    public CatalogVersion(long maxRememberedBooks, long settleWindowMs) {
+        this.bookTags = Caffeine.newBuilder().maximumSize(maxRememberedBooks).build();
+        this.settleWindowNanos = settleWindowMs * 1_000_000;
+        this.lastChangeNanos = System.nanoTime() - settleWindowNanos;
+    }
+
+    /**
+     * Versión actual del catálogo. Debe leerse ANTES de consultar los datos que se van a etiquetar:
+     * si entretanto hay una escritura, el ETag queda con una versión anterior y el cliente volverá a pedir los datos.
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Indica si ha pasado el retraso máximo de replicación desde el último cambio, de modo que cualquier
+     * réplica refleja ya la versión actual. Debe consultarse DESPUÉS de leer {@link #current()}.
+     */
+    public boolean isSettled() {
+        return System.nanoTime() - lastChangeNanos >= settleWindowNanos;
+    }
+
+    /**
+     * ETag de una consulta sobre la colección (por ejemplo, una página del listado) en la versión indicada.
+     * @param version La versión leída antes de ejecutar la consulta.
+     * @param query Los parámetros que identifican la consulta (cursor, límite...).
+     */
+    public String collectionTag(long version, Object... query) {
+        return "\"c" + bootId + "-" + version + "-" + Integer.toHexString(Objects.hash(query)) + "\"";
+    }
+
+    /**
+     * ETag de un libro, derivado de su ID y su updatedAt. Como updated_at solo guarda segundos, se añade
+     * un hash de los campos editables para distinguir dos modificaciones dentro del mismo segundo.
+     */
+    public static String bookTag(BookDTO book) {
+        long updatedAt = book.updatedAt() == null ? 0 : book.updatedAt().toEpochSecond(ZoneOffset.UTC);
+        int contentHash = Objects.hash(book.title(), book.author(), book.publicationYear(), book.isbn());
+        return "\"b" + book.id() + "-" + updatedAt + "-" + Integer.toHexString(contentHash) + "\"";
+    }
+
+    /**
+     * ETag de una representación parcial de un libro (solo algunos campos), derivado de su ID y de los valores incluidos.
+     */
+    public static String bookFieldsTag(int id, Map<String, Object> values) {
+        return "\"b" + id + "-f" + Integer.toHexString(values.hashCode()) + "\"";
+    }
+
+    /**
+     * Devuelve el ETag vigente recordado para el libro, o null si no se conoce.
+     */
+    public String knownBookTag(int id) {
+        return bookTags.getIfPresent(id);
+    }
+
+    /**
+     * Recuerda el ETag de un libro recién leído, salvo que el catálogo haya cambiado desde que empezó la lectura
+     * (en cuyo caso el dato podría ser anterior a ese cambio).
+     * @param versionAtRead La versión leída antes de consultar el libro.
+     */
+    public void rememberBookTag(int id, String tag, long versionAtRead) {
+        // La comprobación se hace dentro de compute para que no se cuele entre el incremento de versión
+        // y la invalidación que hace forget() sobre la misma clave
+        bookTags.asMap().compute(id, (key, previous) -> version.get() == versionAtRead && isSettled() ? tag : previous);
+    }
+
+    @Override
+    public void onBookCreated(Book book) {
+        version.incrementAndGet();
+        lastChangeNanos = System.nanoTime();
+    }
+
+    @Override
+    public void onBookUpdated(Book book) {
+        forget(book.getId());
+    }
+
+    @Override
+    public void onBookDeleted(int id) {
+        forget(id);
+    }
+
+    private void forget(int id) {
+        version.incrementAndGet(); // Primero la versión, después la invalidación (ver rememberBookTag)
+        lastChangeNanos = System.nanoTime();
+        bookTags.invalidate(id);
+    }
+}
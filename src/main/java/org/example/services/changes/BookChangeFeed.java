@@ -0,0 +1,262 @@
+package org.example.services.changes;
+
+import io.javalin.util.ConcurrencyUtil;
+import org.example.mappers.BookMapper;
+import org.example.models.Book;
+import org.example.models.dtos.BookChangeDTO;
+import org.example.models.dtos.BookChangesDTO;
+import org.example.services.BookChangeListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feed de cambios del catálogo: guarda en un búfer circular en memoria los últimos cambios confirmados,
+ * cada uno con una versión creciente y sin huecos, para que los clientes se sincronicen con un delta
+ * ({@link #changesSince}) o reciban los cambios en directo ({@link #subscribe}) en lugar de recargar el listado.
+ * <p>
+ * Si la versión del cliente ya salió del búfer, o es de un arranque anterior (otro feedId), el cliente
+ * recibe resync = true y debe recargar el listado completo. Se asume que todas las escrituras pasan por
+ * esta instancia de la aplicación (igual que CatalogVersion).
+ * <p>
+ * Cada suscriptor tiene su propio envío, en un hilo del ejecutor de envíos (virtual si la aplicación usa hilos
+ * virtuales): la escritura que produjo el cambio solo le avisa, y un cliente lento, cuyas escrituras se bloquean,
+ * solo se retrasa a sí mismo. El envío no reparte cambios sueltos: cada vez que se le avisa, lee del búfer los
+ * posteriores a la última versión entregada a ese suscriptor, así que ningún cambio se pierde ni se desordena
+ * aunque varias escrituras concurrentes avisen en otro orden. La cola pendiente de cada suscriptor está así
+ * acotada por la capacidad del búfer: si se queda más atrás, en lugar de acumular cambios recibe un "hello"
+ * con resync = true y continúa desde la versión actual.
+ */
+public class BookChangeFeed implements BookChangeListener {
+
+    /**
+     * Receptor de los cambios en directo (por ejemplo, una conexión SSE).
+     * Si alguno de sus métodos lanza una excepción, se cancela la suscripción.
+     */
+    public interface Subscriber {
+
+        /**
+         * Primer mensaje de la suscripción: el estado del feed para la versión que tenía el cliente
+         * (con resync = true si debe recargar el listado). Los cambios pendientes llegan a continuación por {@link #change}.
+         */
+        void hello(BookChangesDTO state);
+
+        void change(BookChangeDTO change);
+
+        /**
+         * Mensaje periódico sin datos, para mantener viva la conexión y detectar clientes desconectados.
+         */
+        void heartbeat();
+    }
+
+    private final String feedId = Long.toString(System.currentTimeMillis(), 36);
+    private final BookMapper bookMapper;
+    private final BookChangeDTO[] buffer;
+    private long version; // Protegida por this, igual que el búfer
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService heartbeats;
+    private final ExecutorService senders = ConcurrencyUtil.executorService("book-change-feed-sender");
+
+    /**
+     * @param capacity El número de cambios que se conservan para los deltas.
+     * @param heartbeatIntervalMs El intervalo entre mensajes de mantenimiento a los suscriptores.
+     */
+    public BookChangeFeed(BookMapper bookMapper, int capacity, long heartbeatIntervalMs) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad del feed de cambios debe ser al menos 1.");
+        }
+        this.bookMapper = bookMapper;
+        this.buffer = new BookChangeDTO[capacity];
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public String feedId() {
+        return feedId;
+    }
+
+    /**
+     * Cambios posteriores a la versión indicada.
+     * @param since La versión que tiene el cliente, o null si aún no tiene ninguna (solo se devuelve la versión actual).
+     * @param clientFeedId El feedId con el que el cliente obtuvo esa versión, o null si no lo conoce.
+     */
+    public synchronized BookChangesDTO changesSince(Long since, String clientFeedId) {
+        if (since == null) {
+            return new BookChangesDTO(feedId, version, false, List.of());
+        }
+        long oldestAvailable = Math.max(1, version - buffer.length + 1);
+        boolean otherFeed = clientFeedId != null && !clientFeedId.equals(feedId);
+        if (otherFeed || since < oldestAvailable - 1 || since > version) {
+            return new BookChangesDTO(feedId, version, true, List.of());
+        }
+        List<BookChangeDTO> changes = new ArrayList<>((int) (version - since));
+        for (long v = since + 1; v <= version; v++) {
+            changes.add(buffer[slot(v)]);
+        }
+        return new BookChangesDTO(feedId, version, false, changes);
+    }
+
+    /**
+     * Suscribe un receptor a los cambios en directo, empezando por los posteriores a la versión indicada.
+     * @param since La versión que tiene el cliente, o null para recibir solo los cambios a partir de ahora.
+     * @param clientFeedId El feedId con el que el cliente obtuvo esa versión, o null si no lo conoce.
+     * @return Una acción que cancela la suscripción.
+     */
+    public Runnable subscribe(Long since, String clientFeedId, Subscriber subscriber) {
+        Subscription subscription = new Subscription(subscriber, since, clientFeedId);
+        // Se registra antes de su primer envío (el "hello"): los cambios que lleguen mientras tanto están ya
+        // en el búfer, y ese envío, o el siguiente, los leerá de ahí
+        subscriptions.add(subscription);
+        signal(subscription);
+        return () -> cancel(subscription);
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void onBookCreated(Book book) {
+        append("created", book.getId(), book);
+    }
+
+    @Override
+    public void onBookUpdated(Book book) {
+        append("updated", book.getId(), book);
+    }
+
+    @Override
+    public void onBookDeleted(int id) {
+        append("deleted", id, null);
+    }
+
+    private void append(String type, int bookId, Book book) {
+        synchronized (this) {
+            BookChangeDTO change = new BookChangeDTO(version + 1, type, bookId, book == null ? null : bookMapper.toDto(book));
+            buffer[slot(change.version())] = change;
+            version = change.version();
+        }
+        for (Subscription subscription : subscriptions) {
+            signal(subscription);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscription subscription : subscriptions) {
+            subscription.heartbeatDue = true;
+            signal(subscription);
+        }
+    }
+
+    /**
+     * Avisa al suscriptor de que tiene algo que enviar. Si su envío ya está en marcha, ese envío lo recogerá;
+     * nunca hay dos envíos a la vez para el mismo suscriptor.
+     */
+    private void signal(Subscription subscription) {
+        subscription.dirty.set(true);
+        if (subscription.sending.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> send(subscription));
+            } catch (RuntimeException e) { // Ejecutor cerrado
+                subscription.sending.set(false);
+                cancel(subscription);
+            }
+        }
+    }
+
+    private void send(Subscription subscription) {
+        do {
+            try {
+                while (subscription.active && subscription.dirty.getAndSet(false)) {
+                    drain(subscription);
+                }
+            } catch (RuntimeException e) {
+                cancel(subscription);
+            } finally {
+                subscription.sending.set(false);
+            }
+            // Un aviso que llegó justo después de comprobar 'dirty' y antes de liberar el envío no se pierde
+        } while (subscription.active && subscription.dirty.get() && subscription.sending.compareAndSet(false, true));
+    }
+
+    /**
+     * Entrega al suscriptor, en orden, los cambios del búfer posteriores a su última versión (precedidos del
+     * "hello" en el primer envío) y, si toca, un heartbeat. Si se quedó tan atrás que esos cambios ya salieron
+     * del búfer, se le pide que recargue el listado y continúa desde la versión actual.
+     */
+    private void drain(Subscription subscription) {
+        if (!subscription.helloSent) {
+            BookChangesDTO state = changesSince(subscription.since, subscription.clientFeedId);
+            subscription.lastVersion = state.version() - state.changes().size();
+            subscription.subscriber.hello(new BookChangesDTO(state.feedId(), subscription.lastVersion, state.resync(), List.of()));
+            subscription.helloSent = true;
+        }
+        BookChangesDTO pending = changesSince(subscription.lastVersion, feedId);
+        if (pending.resync()) {
+            subscription.subscriber.hello(pending);
+            subscription.lastVersion = pending.version();
+        } else {
+            pending.changes().forEach(subscription::deliver);
+        }
+        if (subscription.heartbeatDue) {
+            subscription.heartbeatDue = false;
+            subscription.subscriber.heartbeat();
+        }
+    }
+
+    private void cancel(Subscription subscription) {
+        subscription.active = false;
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Detiene los heartbeats y los envíos en curso.
+     */
+    public void close() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    private int slot(long version) {
+        return (int) (version % buffer.length);
+    }
+
+    /**
+     * Estado de un suscriptor. lastVersion y helloSent solo se usan desde su envío, que nunca corre dos veces
+     * a la vez ('sending'); cada envío ve lo que dejó el anterior porque ambos pasan por ese mismo flag.
+     */
+    private static final class Subscription {
+        private final Subscriber subscriber;
+        private final Long since;
+        private final String clientFeedId;
+        private final AtomicBoolean sending = new AtomicBoolean(false);
+        private final AtomicBoolean dirty = new AtomicBoolean(false);
+        private volatile boolean active = true;
+        private volatile boolean heartbeatDue;
+        private boolean helloSent;
+        private long lastVersion;
+
+        private Subscription(Subscriber subscriber, Long since, String clientFeedId) {
+            this.subscriber = subscriber;
+            this.since = since;
+            this.clientFeedId = clientFeedId;
+        }
+
+        private void deliver(BookChangeDTO change) {
+            if (change.version() > lastVersion) {
+                subscriber.change(change);
+                lastVersion = change.version();
+            }
+        }
+    }
+}
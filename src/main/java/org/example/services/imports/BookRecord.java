@@ -0,0 +1,20 @@
+package org.example.services.imports;
+
+import org.example.models.dtos.BookCreateDTO;
+
+/**
+ * Registro leído de un fichero de importación.
+ * @param lineNumber La línea del fichero donde empieza el registro.
+ * @param book Los datos del libro, o null si el registro no se pudo interpretar.
+ * @param error El motivo por el que no se pudo interpretar el registro, o null si es correcto.
+ */
+public record BookRecord(long lineNumber, BookCreateDTO book, String error) {
+
+    public static BookRecord valid(long lineNumber, BookCreateDTO book) {
+        return new BookRecord(lineNumber, book, null);
+    }
+
+    public static BookRecord invalid(long lineNumber, String error) {
+        return new BookRecord(lineNumber, null, error);
+    }
+}
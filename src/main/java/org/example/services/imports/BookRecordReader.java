@@ -0,0 +1,18 @@
+package org.example.services.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lector incremental de registros de libros: interpreta la entrada registro a registro,
+ * sin cargar el fichero completo en memoria.
+ */
+public interface BookRecordReader extends Closeable {
+
+    /**
+     * Lee el siguiente registro.
+     * @return El siguiente registro, o null si se alcanzó el final de la entrada.
+     * @throws IOException si falla la lectura de la entrada.
+     */
+    BookRecord next() throws IOException;
+}
@@ -0,0 +1,145 @@
+package org.example.services.imports;
+
+import org.example.models.dtos.BookCreateDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lee libros en formato CSV (RFC 4180): campos separados por comas, opcionalmente entre comillas dobles
+ * (que pueden contener comas y saltos de línea). La primera línea debe ser una cabecera con las columnas
+ * 'title' y 'author', y opcionalmente 'publicationYear' (o 'publication_year') e 'isbn', en cualquier orden.
+ */
+public class CsvBookRecordReader implements BookRecordReader {
+
+    // Limita la memoria usada por un registro malformado (por ejemplo, unas comillas sin cerrar)
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final BufferedReader reader;
+    private long lineNumber = 0;
+    private int titleIndex = -1;
+    private int authorIndex = -1;
+    private int yearIndex = -1;
+    private int isbnIndex = -1;
+
+    /**
+     * @throws IllegalArgumentException si la cabecera no contiene las columnas obligatorias.
+     */
+    public CsvBookRecordReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "title" -> titleIndex = i;
+                    case "author" -> authorIndex = i;
+                    case "publicationyear", "publication_year" -> yearIndex = i;
+                    case "isbn" -> isbnIndex = i;
+                    default -> { } // Las columnas desconocidas se ignoran
+                }
+            }
+        }
+        if (titleIndex < 0 || authorIndex < 0) {
+            throw new IllegalArgumentException("La cabecera CSV debe incluir las columnas 'title' y 'author'.");
+        }
+    }
+
+    @Override
+    public BookRecord next() throws IOException {
+        while (true) {
+            long recordLine = lineNumber + 1;
+            List<String> fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue; // Línea vacía
+            }
+
+            int publicationYear = 0;
+            String year = field(fields, yearIndex);
+            if (year != null && !year.isBlank()) {
+                try {
+                    publicationYear = Integer.parseInt(year.trim());
+                } catch (NumberFormatException e) {
+                    return BookRecord.invalid(recordLine, "Año de publicación no válido: '" + year + "'.");
+                }
+            }
+            String isbn = field(fields, isbnIndex);
+            // Un ISBN vacío se guarda como NULL para no chocar con la restricción UNIQUE
+            if (isbn != null && isbn.isBlank()) {
+                isbn = null;
+            }
+            return BookRecord.valid(recordLine,
+                    new BookCreateDTO(field(fields, titleIndex), field(fields, authorIndex), publicationYear, isbn));
+        }
+    }
+
+    private String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    /**
+     * Lee un registro completo (que puede ocupar varias líneas si tiene campos entre comillas).
+     * @return Los campos del registro, o null al final de la entrada.
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        int length = 0;
+        while (c != -1) {
+            char ch = (char) c;
+            if (inQuotes) {
+                if (ch == '"') {
+                    int next = reader.read();
+                    if (next != '"') { // Fin del campo entre comillas; "" es una comilla escapada
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                    field.append('"');
+                } else {
+                    if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new IllegalArgumentException("El registro CSV de la línea " + lineNumber + " supera el tamaño máximo permitido.");
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
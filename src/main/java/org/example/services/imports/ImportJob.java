@@ -0,0 +1,83 @@
+package org.example.services.imports;
+
+import org.example.models.dtos.BookImportErrorDTO;
+import org.example.models.dtos.BookImportStatusDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado de una importación masiva en curso o terminada.
+ * Los contadores se actualizan desde el hilo lector y el hilo escritor, y pueden consultarse en cualquier momento.
+ */
+public class ImportJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final String format;
+    private final int maxReportedErrors;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<BookImportErrorDTO> errors = new ArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String failureMessage;
+
+    public ImportJob(String id, String format, int maxReportedErrors) {
+        this.id = id;
+        this.format = format;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public String getId() { return id; }
+    public long getLinesRead() { return linesRead.get(); }
+
+    public void recordLineRead() {
+        linesRead.incrementAndGet();
+    }
+
+    public void recordImported(int count) {
+        imported.addAndGet(count);
+    }
+
+    /**
+     * Registra una línea rechazada. Solo se conservan los primeros errores para mantener la memoria acotada.
+     */
+    public void recordRejected(long line, String message) {
+        rejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BookImportErrorDTO(line, message));
+            }
+        }
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String message) {
+        failureMessage = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    public BookImportStatusDTO toDto() {
+        List<BookImportErrorDTO> errorsSnapshot;
+        synchronized (errors) {
+            errorsSnapshot = List.copyOf(errors);
+        }
+        return new BookImportStatusDTO(id, format, status.name(), linesRead.get(), imported.get(), rejected.get(),
+                startedAt, finishedAt, failureMessage, errorsSnapshot);
+    }
+}
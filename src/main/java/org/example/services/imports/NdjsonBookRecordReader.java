@@ -0,0 +1,47 @@
+package org.example.services.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.example.models.dtos.BookCreateDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Lee libros en formato NDJSON: un objeto JSON (BookCreateDTO) por línea. Las líneas vacías se ignoran.
+ */
+public class NdjsonBookRecordReader implements BookRecordReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private long lineNumber = 0;
+
+    public NdjsonBookRecordReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectReader = objectMapper.readerFor(BookCreateDTO.class);
+    }
+
+    @Override
+    public BookRecord next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                BookCreateDTO book = objectReader.readValue(line);
+                return BookRecord.valid(lineNumber, book);
+            } catch (JsonProcessingException e) {
+                return BookRecord.invalid(lineNumber, "JSON no válido: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
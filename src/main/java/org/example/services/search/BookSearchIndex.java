@@ -0,0 +1,232 @@
+package org.example.services.search;
+
+import org.example.models.Book;
+import org.example.services.BookChangeListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria sobre el título, el autor y el ISBN de los libros.
+ * <p>
+ * Por cada campo, un mapa ordenado término -> lista de IDs (int[] ordenado), lo que permite buscar
+ * tanto términos exactos como por prefijo recorriendo un rango del mapa. Se construye al arrancar
+ * y se mantiene al día como BookChangeListener con las altas, modificaciones y bajas confirmadas.
+ * <p>
+ * Todos los términos de la consulta deben aparecer (como término completo o prefijo) en algún campo del libro.
+ * La puntuación suma, por término de la consulta, su mejor coincidencia: pesa más el título que el autor o el ISBN,
+ * y una coincidencia exacta más que un prefijo (cuanto más corto es el término encontrado, mejor el prefijo).
+ */
+public class BookSearchIndex implements BookChangeListener {
+
+    private enum Field {
+        TITLE(3.0), AUTHOR(2.0), ISBN(2.0);
+
+        private final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final double PREFIX_FACTOR = 0.8;
+
+    private final Map<Field, TreeMap<String, IntPostingList>> postings = new EnumMap<>(Field.class);
+    // Términos de cada libro por campo (instancias compartidas con las claves del índice), para poder retirarlo
+    private final Map<Integer, String[][]> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public BookSearchIndex() {
+        for (Field field : Field.values()) {
+            postings.put(field, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Añade el libro al índice, o sustituye sus términos si ya estaba indexado.
+     */
+    public void index(Book book) {
+        List<String> titleTerms = TextTokenizer.tokenize(book.getTitle());
+        List<String> authorTerms = TextTokenizer.tokenize(book.getAuthor());
+        List<String> isbnTerms = TextTokenizer.tokenizeIsbn(book.getIsbn());
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(book.getId());
+            String[][] documentTerms = new String[Field.values().length][];
+            documentTerms[Field.TITLE.ordinal()] = addLocked(Field.TITLE, titleTerms, book.getId());
+            documentTerms[Field.AUTHOR.ordinal()] = addLocked(Field.AUTHOR, authorTerms, book.getId());
+            documentTerms[Field.ISBN.ordinal()] = addLocked(Field.ISBN, isbnTerms, book.getId());
+            documents.put(book.getId(), documentTerms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retira el libro del índice (no hace nada si no estaba indexado).
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(Map::clear);
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Número de libros indexados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los libros que coinciden con la consulta.
+     * @param query El texto de la consulta.
+     * @param limit El número máximo de resultados.
+     * @return Los IDs de los libros encontrados, de mayor a menor puntuación (a igual puntuación, por ID).
+     */
+    public int[] search(String query, int limit) {
+        List<String> queryTerms = TextTokenizer.tokenize(query);
+        List<String> isbnQuery = TextTokenizer.tokenizeIsbn(query);
+
+        Map<Integer, Double> results;
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Integer, Double> termScores = scoreTerm(queryTerm, Field.values());
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            results = scores == null ? new HashMap<>() : scores;
+            // Un ISBN escrito con guiones se divide en varios términos; se busca también como un único término
+            if (queryTerms.size() > 1 && !isbnQuery.isEmpty()) {
+                scoreTerm(isbnQuery.get(0), new Field[]{Field.ISBN}).forEach((id, score) -> results.merge(id, score, Math::max));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return topIds(results, limit);
+    }
+
+    @Override
+    public void onBookCreated(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void onBookUpdated(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void onBookDeleted(int id) {
+        remove(id);
+    }
+
+    /**
+     * Mejor puntuación de cada libro para un término de la consulta, entre los campos indicados.
+     */
+    private Map<Integer, Double> scoreTerm(String queryTerm, Field[] fields) {
+        Map<Integer, Double> scores = new HashMap<>();
+        for (Field field : fields) {
+            // Todos los términos que empiezan por queryTerm (incluido el propio término exacto)
+            Map<String, IntPostingList> matches = postings.get(field)
+                    .subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+            for (Map.Entry<String, IntPostingList> match : matches.entrySet()) {
+                String term = match.getKey();
+                double score = term.length() == queryTerm.length()
+                        ? field.weight
+                        : field.weight * PREFIX_FACTOR * queryTerm.length() / term.length();
+                IntPostingList ids = match.getValue();
+                for (int i = 0; i < ids.size(); i++) {
+                    scores.merge(ids.get(i), score, Math::max);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static int[] topIds(Map<Integer, Double> scores, int limit) {
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        int count = Math.min(limit, ranked.size());
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = ranked.get(i).getKey();
+        }
+        return ids;
+    }
+
+    private String[] addLocked(Field field, List<String> terms, int id) {
+        TreeMap<String, IntPostingList> fieldPostings = postings.get(field);
+        String[] storedTerms = new String[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            // Se reutiliza la instancia de la clave ya indexada para no guardar una copia del término por libro
+            Map.Entry<String, IntPostingList> existing = fieldPostings.ceilingEntry(term);
+            IntPostingList ids;
+            if (existing != null && existing.getKey().equals(term)) {
+                term = existing.getKey();
+                ids = existing.getValue();
+            } else {
+                ids = new IntPostingList();
+                fieldPostings.put(term, ids);
+            }
+            ids.add(id);
+            storedTerms[i] = term;
+        }
+        return storedTerms;
+    }
+
+    private void removeLocked(int id) {
+        String[][] documentTerms = documents.remove(id);
+        if (documentTerms == null) {
+            return;
+        }
+        for (Field field : Field.values()) {
+            TreeMap<String, IntPostingList> fieldPostings = postings.get(field);
+            for (String term : documentTerms[field.ordinal()]) {
+                IntPostingList ids = fieldPostings.get(term);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        fieldPostings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.services.search;
+
+import org.example.models.Book;
+import org.example.services.BookChangeListener;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de ISBN -> ID de libro, para buscar por ISBN y detectar duplicados sin consultar la base de datos.
+ * Un filtro de Bloom descarta sin tocar el mapa los ISBN que seguro que no existen (el caso habitual en las altas);
+ * el mapa da la respuesta exacta para el resto. Las lecturas no usan bloqueos; las escrituras se serializan.
+ * <p>
+ * Solo refleja las escrituras que pasan por esta instancia, así que la restricción UNIQUE de la base de datos
+ * sigue siendo la garantía final frente a duplicados.
+ */
+public class IsbnIndex implements BookChangeListener {
+
+    private static final long INITIAL_CAPACITY = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Map<String, Integer> idsByIsbn = new ConcurrentHashMap<>();
+    private final Map<Integer, String> isbnsById = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(INITIAL_CAPACITY, FALSE_POSITIVE_RATE);
+
+    /**
+     * Busca el libro que tiene el ISBN indicado.
+     * @param isbn El ISBN a buscar (se compara sin distinguir mayúsculas, como la columna de MySQL).
+     * @return El ID del libro, o null si ningún libro tiene ese ISBN.
+     */
+    public Integer findId(String isbn) {
+        if (isbn == null || isbn.isEmpty()) {
+            return null;
+        }
+        String key = normalize(isbn);
+        if (!filter.mightContain(key)) {
+            return null;
+        }
+        return idsByIsbn.get(key);
+    }
+
+    /**
+     * Añade o actualiza el ISBN de un libro (si lo cambió, se olvida el anterior).
+     */
+    public synchronized void index(Book book) {
+        remove(book.getId());
+        if (book.getIsbn() == null || book.getIsbn().isEmpty()) {
+            return;
+        }
+        String key = normalize(book.getIsbn());
+        if (idsByIsbn.size() >= filter.capacity()) {
+            rebuildFilter(filter.capacity() * 2);
+        }
+        // Primero el filtro y después el mapa, para que un lector que encuentra el ISBN en el mapa lo haya visto en el filtro
+        filter.add(key);
+        idsByIsbn.put(key, book.getId());
+        isbnsById.put(book.getId(), key);
+    }
+
+    public synchronized void remove(int id) {
+        String key = isbnsById.remove(id);
+        if (key != null) {
+            idsByIsbn.remove(key, id);
+        }
+    }
+
+    public synchronized void clear() {
+        idsByIsbn.clear();
+        isbnsById.clear();
+        filter = new BloomFilter(INITIAL_CAPACITY, FALSE_POSITIVE_RATE);
+    }
+
+    public int size() {
+        return idsByIsbn.size();
+    }
+
+    /**
+     * Sustituye el filtro por uno más grande con los ISBN actuales. También descarta los bits de los ISBN eliminados,
+     * que un filtro de Bloom no puede borrar.
+     */
+    private void rebuildFilter(long capacity) {
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        idsByIsbn.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    private static String normalize(String isbn) {
+        return isbn.toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public void onBookCreated(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void onBookUpdated(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void onBookDeleted(int id) {
+        remove(id);
+    }
+}
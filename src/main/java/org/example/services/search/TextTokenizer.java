@@ -0,0 +1,54 @@
+package org.example.services.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza y divide en términos los textos indexados y las consultas de búsqueda:
+ * minúsculas, sin tildes ni diacríticos ("Cien años" -> "cien", "anos") y separando por todo lo que no sea letra o dígito.
+ */
+final class TextTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]");
+
+    private TextTokenizer() {}
+
+    /**
+     * Devuelve los términos distintos del texto, en orden de aparición.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : SEPARATORS.split(normalize(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Normaliza un ISBN como un único término, sin guiones ni espacios ("978-84-376" -> "97884376").
+     */
+    static List<String> tokenizeIsbn(String isbn) {
+        if (isbn == null || isbn.isBlank()) {
+            return List.of();
+        }
+        String term = NON_ALPHANUMERIC.matcher(normalize(isbn)).replaceAll("");
+        return term.isEmpty() ? List.of() : List.of(term);
+    }
+
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void initialLimitIsClampedToBounds() {
+        assertEquals(5, new AimdConcurrencyLimiter(1, 5, 50, 100).getLimit());
+        assertEquals(50, new AimdConcurrencyLimiter(80, 5, 50, 100).getLimit());
+    }
+
+    @Test
+    void admitsUpToTheLimit() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(3, 1, 10, 100);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(3, limiter.getInFlight());
+
+        limiter.release(FAST, false);
+        assertEquals(2, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void increasesByOneOverLimitPerFastReleaseWhenSaturated() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(4, 1, 100, 100);
+        fill(limiter, 4);
+
+        // 4 -> 4,25 -> 4,49 -> 4,71 -> 4,92 -> 5,12: cinco liberaciones rápidas para ganar una unidad
+        for (int i = 0; i < 4; i++) {
+            cycleAtFullLoad(limiter, FAST);
+            assertEquals(4, limiter.getLimit());
+        }
+        cycleAtFullLoad(limiter, FAST);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void doesNotIncreaseWhileLimitIsUnderused() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(10, 1, 100, 100);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false); // Una sola petición en curso: 1 * 2 < 10
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void slowOrOverloadedReleasesMultiplyLimitByBackoffRatio() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(10, 1, 100, 100);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals(9, limiter.getLimit()); // 10 * 0,9
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(8, limiter.getLimit()); // 9 * 0,9 = 8,1
+    }
+
+    @Test
+    void latencyEqualToThresholdIsNotSlow() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 100, 100);
+        fill(limiter, 2);
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(100), false);
+        assertEquals(2, limiter.getLimit()); // 2 -> 2,5: no baja
+    }
+
+    @Test
+    void staysWithinMinimumAndMaximum() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(10, 3, 12, 100);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, false);
+        }
+        assertEquals(3, limiter.getLimit());
+
+        fill(limiter, 3);
+        for (int i = 0; i < 500; i++) {
+            cycleAtFullLoad(limiter, FAST);
+        }
+        assertEquals(12, limiter.getLimit());
+    }
+
+    private static void fill(AimdConcurrencyLimiter limiter, int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+
+    /**
+     * Libera una petición con el límite lleno y vuelve a ocupar todo el límite (que puede haber crecido).
+     */
+    private static void cycleAtFullLoad(AimdConcurrencyLimiter limiter, long latencyNanos) {
+        limiter.release(latencyNanos, false);
+        while (limiter.tryAcquire()) {
+            // Ocupa las plazas libres
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.services.imports;
+
+import org.example.models.dtos.BookCreateDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvBookRecordReaderTest {
+
+    @Test
+    void readsPlainFieldsInHeaderOrder() throws IOException {
+        List<BookRecord> records = readAll("isbn,author,title,publicationYear\n9780306406157,Autor,Título,1999\n");
+
+        assertEquals(1, records.size());
+        assertEquals(new BookCreateDTO("Título", "Autor", 1999, "9780306406157"), records.get(0).book());
+        assertEquals(2, records.get(0).lineNumber());
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndEscapedQuotes() throws IOException {
+        List<BookRecord> records = readAll("title,author\n\"Uno, dos\",\"Dijo \"\"hola\"\"\"\n");
+
+        assertEquals("Uno, dos", records.get(0).book().title());
+        assertEquals("Dijo \"hola\"", records.get(0).book().author());
+    }
+
+    @Test
+    void quotedFieldsCanSpanLinesAndLineNumbersFollow() throws IOException {
+        List<BookRecord> records = readAll("title,author\n\"Primera\nsegunda\",A\nOtro,B\n");
+
+        assertEquals(2, records.size());
+        assertEquals("Primera\nsegunda", records.get(0).book().title());
+        assertEquals(2, records.get(0).lineNumber());
+        assertEquals("Otro", records.get(1).book().title());
+        assertEquals(4, records.get(1).lineNumber());
+    }
+
+    @Test
+    void emptyQuotedFieldAndQuoteInsideUnquotedField() throws IOException {
+        List<BookRecord> records = readAll("title,author,isbn\n\"\",a\"b,\n");
+
+        assertEquals("", records.get(0).book().title());
+        assertEquals("a\"b", records.get(0).book().author());
+        assertNull(records.get(0).book().isbn()); // ISBN vacío -> NULL
+    }
+
+    @Test
+    void handlesCrLfAndSkipsEmptyLines() throws IOException {
+        List<BookRecord> records = readAll("title,author\r\n\r\nT,A\r\n\nT2,A2");
+
+        assertEquals(2, records.size());
+        assertEquals("A", records.get(0).book().author());
+        assertEquals("T2", records.get(1).book().title());
+        assertEquals(5, records.get(1).lineNumber());
+    }
+
+    @Test
+    void invalidYearProducesInvalidRecordAndReadingContinues() throws IOException {
+        List<BookRecord> records = readAll("title,author,publication_year\nT,A,dos mil\nT2,A2,2001\n");
+
+        assertNull(records.get(0).book());
+        assertTrue(records.get(0).error().contains("dos mil"));
+        assertEquals(2001, records.get(1).book().publicationYear());
+    }
+
+    @Test
+    void missingColumnsInRecordAreNull() throws IOException {
+        List<BookRecord> records = readAll("title,author,isbn\nSolo título\n");
+
+        assertEquals("Solo título", records.get(0).book().title());
+        assertNull(records.get(0).book().author());
+        assertNull(records.get(0).book().isbn());
+    }
+
+    @Test
+    void rejectsHeaderWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () -> readAll("title,isbn\nT,1\n"));
+        assertThrows(IllegalArgumentException.class, () -> readAll(""));
+    }
+
+    @Test
+    void rejectsUnterminatedQuoteBeyondMaximumRecordLength() {
+        String csv = "title,author\n\"" + "x".repeat(70 * 1024) + "\n";
+
+        assertThrows(IllegalArgumentException.class, () -> readAll(csv));
+    }
+
+    private static List<BookRecord> readAll(String csv) throws IOException {
+        List<BookRecord> records = new ArrayList<>();
+        try (CsvBookRecordReader reader = new CsvBookRecordReader(new BufferedReader(new StringReader(csv)))) {
+            BookRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.services.search;
+
+import org.example.models.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IsbnIndexTest {
+
+    @Test
+    void findsEveryIsbnAfterFilterResizes() {
+        IsbnIndex index = new IsbnIndex();
+        // Muy por encima de la capacidad inicial (1024): el filtro se reconstruye varias veces
+        for (int id = 1; id <= 10_000; id++) {
+            index.index(book(id, "ISBN-" + id));
+        }
+
+        assertEquals(10_000, index.size());
+        for (int id = 1; id <= 10_000; id++) {
+            assertEquals(id, index.findId("ISBN-" + id));
+        }
+        assertNull(index.findId("ISBN-0"));
+    }
+
+    @Test
+    void lookupIsCaseInsensitive() {
+        IsbnIndex index = new IsbnIndex();
+        index.index(book(1, "123456789x"));
+
+        assertEquals(1, index.findId("123456789X"));
+        assertNull(index.findId(null));
+        assertNull(index.findId(""));
+    }
+
+    @Test
+    void updateReplacesPreviousIsbnAndRemoveForgetsIt() {
+        IsbnIndex index = new IsbnIndex();
+        index.onBookCreated(book(1, "A"));
+        index.onBookUpdated(book(1, "B"));
+
+        assertNull(index.findId("A"));
+        assertEquals(1, index.findId("B"));
+
+        index.onBookUpdated(book(1, null));
+        assertNull(index.findId("B"));
+
+        index.onBookCreated(book(2, "C"));
+        index.onBookDeleted(2);
+        assertNull(index.findId("C"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void removingFormerOwnerKeepsIsbnOfNewOwner() {
+        IsbnIndex index = new IsbnIndex();
+        index.index(book(1, "A"));
+        index.index(book(2, "A"));
+
+        index.remove(1);
+
+        assertEquals(2, index.findId("A"));
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        IsbnIndex index = new IsbnIndex();
+        index.index(book(1, "A"));
+        index.clear();
+
+        assertNull(index.findId("A"));
+        index.index(book(2, "B"));
+        assertEquals(2, index.findId("B"));
+    }
+
+    @Test
+    void concurrentReadersNeverMissIndexedIsbnsDuringResize() throws InterruptedException {
+        IsbnIndex index = new IsbnIndex();
+        AtomicInteger indexed = new AtomicInteger();
+        AtomicReference<String> miss = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (indexed.get() < 20_000 && miss.get() == null) {
+                int upTo = indexed.get();
+                for (int id = Math.max(1, upTo - 500); id <= upTo; id++) {
+                    if (index.findId("ISBN-" + id) == null) {
+                        miss.compareAndSet(null, "ISBN-" + id);
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int id = 1; id <= 20_000; id++) {
+            index.index(book(id, "ISBN-" + id));
+            indexed.set(id);
+        }
+        reader.join();
+
+        assertNull(miss.get(), "Falso negativo durante la reconstrucción del filtro");
+    }
+
+    private static Book book(int id, String isbn) {
+        Book book = new Book();
+        book.setId(id);
+        book.setIsbn(isbn);
+        return book;
+    }
+}